@@ -44,6 +44,17 @@ public @interface ConfigFile {
     @Nonnull
     ContainerType type() default ContainerType.YAML;
 
+    /**
+     * Binary snapshot status of the config file.
+     * If it is true, a snapshot is written next
+     * to the config file after it is parsed, and
+     * it is loaded instead of parsing the file
+     * while the file is not changed.
+     *
+     * @return binary snapshot status
+     */
+    boolean snapshot() default false;
+
 
     /**
      * Save timer settings
@@ -60,4 +71,12 @@ public @interface ConfigFile {
      * @return reload timer settings
      */
     ReloadTimer reloadTimer() default @ReloadTimer;
+
+    /**
+     * Write-behind settings
+     * for the config file.
+     *
+     * @return write-behind settings
+     */
+    WriteBehind writeBehind() default @WriteBehind;
 }
\ No newline at end of file
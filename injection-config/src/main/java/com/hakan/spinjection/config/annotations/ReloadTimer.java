@@ -39,6 +39,16 @@ public @interface ReloadTimer {
      */
     boolean async() default true;
 
+    /**
+     * If it is true, the config file is
+     * reloaded when the file is changed
+     * instead of every period time.
+     * Delay and period are ignored.
+     *
+     * @return watch status
+     */
+    boolean watch() default false;
+
     /**
      * Auto-reload delay time
      * of the config file.
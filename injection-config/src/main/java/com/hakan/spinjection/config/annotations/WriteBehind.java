@@ -0,0 +1,49 @@
+package com.hakan.spinjection.config.annotations;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteBehind annotation to
+ * define write-behind settings.
+ */
+@Documented
+@Target(ElementType.ANNOTATION_TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WriteBehind {
+
+    /**
+     * Write-behind status of the
+     * config file. If it is true,
+     * set methods only mark the
+     * config file as changed and
+     * the changes are saved later
+     * in a single async save.
+     *
+     * @return write-behind status
+     */
+    boolean enabled() default false;
+
+    /**
+     * Delay time of the save after
+     * the first change. All changes
+     * in this time are saved together.
+     *
+     * @return timestamp
+     */
+    long delay() default 1L;
+
+    /**
+     * Time unit of the delay.
+     * Default is seconds.
+     *
+     * @return time unit
+     */
+    @Nonnull
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
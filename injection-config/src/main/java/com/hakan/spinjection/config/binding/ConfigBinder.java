@@ -0,0 +1,542 @@
+package com.hakan.spinjection.config.binding;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.hakan.spinjection.config.annotations.ConfigValue;
+import com.hakan.spinjection.config.utils.ColorUtils;
+import org.bukkit.configuration.ConfigurationSection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ConfigBinder decodes the values of the
+ * config files to the generic return types
+ * of the {@link ConfigValue} methods.
+ * <p>
+ * Collections and maps are decoded to immutable
+ * copies, interfaces are decoded to immutable
+ * records whose methods return the values of
+ * the section. Sections and json elements are
+ * returned as they are if their types match.
+ * Types which are registered to {@link ConfigCodecs}
+ * are decoded by their codecs.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ConfigBinder {
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        PRIMITIVES.put(boolean.class, Boolean.class);
+        PRIMITIVES.put(byte.class, Byte.class);
+        PRIMITIVES.put(short.class, Short.class);
+        PRIMITIVES.put(char.class, Character.class);
+        PRIMITIVES.put(int.class, Integer.class);
+        PRIMITIVES.put(long.class, Long.class);
+        PRIMITIVES.put(float.class, Float.class);
+        PRIMITIVES.put(double.class, Double.class);
+    }
+
+    /**
+     * Decodes the value of the config file
+     * to the given generic type.
+     *
+     * @param value   value of the config file
+     * @param type    generic type
+     * @param colored colors the texts if it is true
+     * @return decoded value
+     */
+    public static @Nullable Object decode(@Nullable Object value,
+                                          @Nonnull Type type,
+                                          boolean colored) {
+        Class<?> clazz = rawClassOf(type);
+        if (clazz == Optional.class)
+            return Optional.ofNullable(decode(value, typeArgumentOf(type, 0), colored));
+
+        if (clazz == Object.class) {
+            Object raw = (value instanceof JsonPrimitive) ? plainOf(value) : value;
+            return (raw instanceof String && colored) ? ColorUtils.colored(raw.toString()) : raw;
+        }
+        if ((value instanceof ConfigurationSection || value instanceof JsonElement) && clazz.isInstance(value))
+            return value;
+
+        Object plain = plainOf(value);
+        if (plain == null)
+            return null;
+
+        Optional<ConfigCodec<?>> codec = ConfigCodecs.findByType((Class) clazz);
+        if (codec.isPresent())
+            return codec.get().decode(plain, type);
+
+        if (clazz.isPrimitive())
+            clazz = PRIMITIVES.get(clazz);
+
+        if (clazz == String.class)
+            return decodeText(plain, colored);
+        if (Number.class.isAssignableFrom(clazz))
+            return decodeNumber(plain, clazz);
+        if (clazz == Boolean.class)
+            return decodeBoolean(plain);
+        if (clazz == Character.class)
+            return decodeCharacter(plain);
+        if (clazz.isEnum())
+            return decodeEnum(plain, clazz);
+        if (clazz.isArray())
+            return decodeArray(plain, componentTypeOf(type), colored);
+        if (Collection.class.isAssignableFrom(clazz) || clazz == Iterable.class)
+            return decodeCollection(plain, clazz, typeArgumentOf(type, 0), colored);
+        if (Map.class.isAssignableFrom(clazz))
+            return decodeMap(plain, typeArgumentOf(type, 0), typeArgumentOf(type, 1), colored);
+        if (clazz.isInstance(plain))
+            return plain;
+        if (clazz.isInterface())
+            return decodeRecord(plain, clazz, colored);
+
+        throw new IllegalArgumentException(plain + " can't be decoded to " + type.getTypeName() + "!");
+    }
+
+
+
+    /**
+     * Converts json elements and configuration
+     * sections to plain values.
+     *
+     * @param value value
+     * @return plain value
+     */
+    private static @Nullable Object plainOf(@Nullable Object value) {
+        if (value instanceof ConfigurationSection)
+            return ((ConfigurationSection) value).getValues(false);
+        if (!(value instanceof JsonElement))
+            return value;
+
+        JsonElement element = (JsonElement) value;
+        if (element.isJsonNull())
+            return null;
+
+        if (element.isJsonArray()) {
+            List<Object> list = new ArrayList<>();
+            for (JsonElement child : element.getAsJsonArray())
+                list.add(child);
+            return list;
+        }
+
+        if (element.isJsonObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet())
+                map.put(entry.getKey(), entry.getValue());
+            return map;
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean())
+            return primitive.getAsBoolean();
+        if (primitive.isNumber())
+            return primitive.getAsNumber();
+        return primitive.getAsString();
+    }
+
+    /**
+     * Decodes a text.
+     *
+     * @param value   plain value
+     * @param colored colors the text if it is true
+     * @return text
+     */
+    private static @Nonnull String decodeText(@Nonnull Object value, boolean colored) {
+        if (value instanceof Map || value instanceof Collection)
+            throw new IllegalArgumentException(value + " can't be decoded to text!");
+        return colored ? ColorUtils.colored(value.toString()) : value.toString();
+    }
+
+    /**
+     * Decodes a number to the number type.
+     *
+     * @param value plain value
+     * @param clazz number type
+     * @return number
+     */
+    private static @Nonnull Number decodeNumber(@Nonnull Object value, @Nonnull Class<?> clazz) {
+        Number number = (value instanceof Number) ? (Number) value : new BigDecimal(value.toString().trim());
+
+        if (clazz == Integer.class)
+            return number.intValue();
+        if (clazz == Long.class)
+            return number.longValue();
+        if (clazz == Double.class)
+            return number.doubleValue();
+        if (clazz == Float.class)
+            return number.floatValue();
+        if (clazz == Short.class)
+            return number.shortValue();
+        if (clazz == Byte.class)
+            return number.byteValue();
+        if (clazz == BigDecimal.class)
+            return new BigDecimal(number.toString());
+        if (clazz.isInstance(number))
+            return number;
+        throw new IllegalArgumentException(value + " can't be decoded to " + clazz.getName() + "!");
+    }
+
+    /**
+     * Decodes a boolean.
+     *
+     * @param value plain value
+     * @return boolean
+     */
+    private static @Nonnull Boolean decodeBoolean(@Nonnull Object value) {
+        if (value instanceof Boolean)
+            return (Boolean) value;
+
+        String text = value.toString().trim();
+        if (text.equalsIgnoreCase("true"))
+            return true;
+        if (text.equalsIgnoreCase("false"))
+            return false;
+        throw new IllegalArgumentException(value + " can't be decoded to boolean!");
+    }
+
+    /**
+     * Decodes a character.
+     *
+     * @param value plain value
+     * @return character
+     */
+    private static @Nonnull Character decodeCharacter(@Nonnull Object value) {
+        String text = value.toString();
+        if (text.length() != 1)
+            throw new IllegalArgumentException(value + " can't be decoded to character!");
+        return text.charAt(0);
+    }
+
+    /**
+     * Decodes an enum constant by its name. Names
+     * are case-insensitive and spaces or dashes
+     * are read as underscores.
+     *
+     * @param value plain value
+     * @param clazz enum type
+     * @return enum constant
+     */
+    private static @Nonnull Enum<?> decodeEnum(@Nonnull Object value, @Nonnull Class<?> clazz) {
+        String name = value.toString().trim();
+        String normalized = name.replace(' ', '_').replace('-', '_');
+
+        for (Object constant : clazz.getEnumConstants()) {
+            Enum<?> enumConstant = (Enum<?>) constant;
+            if (enumConstant.name().equals(name) || enumConstant.name().equalsIgnoreCase(normalized))
+                return enumConstant;
+        }
+        throw new IllegalArgumentException(value + " is not a constant of " + clazz.getName() + "!");
+    }
+
+    /**
+     * Decodes an array.
+     *
+     * @param value         plain value
+     * @param componentType component type
+     * @param colored       colors the texts if it is true
+     * @return array
+     */
+    private static @Nonnull Object decodeArray(@Nonnull Object value,
+                                               @Nonnull Type componentType,
+                                               boolean colored) {
+        List<?> list = listOf(value);
+        Object array = Array.newInstance(rawClassOf(componentType), list.size());
+        for (int i = 0; i < list.size(); i++)
+            Array.set(array, i, decode(list.get(i), componentType, colored));
+        return array;
+    }
+
+    /**
+     * Decodes an immutable list or set.
+     *
+     * @param value       plain value
+     * @param clazz       collection type
+     * @param elementType element type
+     * @param colored     colors the texts if it is true
+     * @return collection
+     */
+    private static @Nonnull Collection<?> decodeCollection(@Nonnull Object value,
+                                                           @Nonnull Class<?> clazz,
+                                                           @Nonnull Type elementType,
+                                                           boolean colored) {
+        List<?> list = listOf(value);
+        Collection<Object> collection = Set.class.isAssignableFrom(clazz) ?
+                new LinkedHashSet<>(list.size() * 2) : new ArrayList<>(list.size());
+
+        for (Object element : list)
+            collection.add(decode(element, elementType, colored));
+
+        return (collection instanceof Set) ?
+                Collections.unmodifiableSet((Set<?>) collection) :
+                Collections.unmodifiableList((List<?>) collection);
+    }
+
+    /**
+     * Decodes an immutable map. Keys are
+     * decoded from their texts.
+     *
+     * @param value     plain value
+     * @param keyType   key type
+     * @param valueType value type
+     * @param colored   colors the texts if it is true
+     * @return map
+     */
+    private static @Nonnull Map<?, ?> decodeMap(@Nonnull Object value,
+                                                @Nonnull Type keyType,
+                                                @Nonnull Type valueType,
+                                                boolean colored) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : mapOf(value).entrySet())
+            map.put(decode(entry.getKey(), keyType, false), decode(entry.getValue(), valueType, colored));
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Decodes an immutable record of the interface.
+     * Every method without parameters returns the
+     * decoded value of its {@link ConfigValue} key,
+     * or of its name if it is not annotated. Default
+     * methods are called as they are declared.
+     *
+     * @param value   plain value
+     * @param clazz   interface
+     * @param colored colors the texts if it is true
+     * @return record
+     */
+    private static @Nonnull Object decodeRecord(@Nonnull Object value,
+                                                @Nonnull Class<?> clazz,
+                                                boolean colored) {
+        Map<?, ?> section = mapOf(value);
+        Map<Method, Object> values = new HashMap<>();
+        Map<Method, MethodHandle> defaults = new HashMap<>();
+
+        for (Method method : clazz.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()))
+                continue;
+            if (method.isDefault()) {
+                defaults.put(method, defaultHandleOf(method));
+                continue;
+            }
+            if (method.getParameterCount() != 0)
+                continue;
+
+            ConfigValue annotation = method.getAnnotation(ConfigValue.class);
+            String key = (annotation == null) ? method.getName() : annotation.value();
+            boolean methodColored = (annotation == null) ? colored : annotation.colored();
+
+            values.put(method, decode(valueOf(section, key), method.getGenericReturnType(), methodColored));
+        }
+
+        return Proxy.newProxyInstance(clazz.getClassLoader(), new Class[]{clazz}, new Record(clazz, values, defaults));
+    }
+
+    /**
+     * Finds the handle of the default method to call
+     * it on the records. Lookups which can call the
+     * default methods of any interface are created by
+     * privateLookupIn on Java 9 and later, and by the
+     * private constructor of the lookup on Java 8.
+     *
+     * @param method default method
+     * @return method handle
+     */
+    private static @Nonnull MethodHandle defaultHandleOf(@Nonnull Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup;
+            try {
+                Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+                lookup = (MethodHandles.Lookup) privateLookupIn.invoke(null, declaring, MethodHandles.lookup());
+            } catch (NoSuchMethodException e) {
+                Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                constructor.setAccessible(true);
+                lookup = constructor.newInstance(declaring, MethodHandles.Lookup.PRIVATE);
+            }
+            return lookup.unreflectSpecial(method, declaring);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("default method " + method.getName() + " of " + declaring.getName() + " can't be bound!", e);
+        }
+    }
+
+    /**
+     * Gets the value of the dotted key
+     * from the section and its children.
+     *
+     * @param section section
+     * @param key     dotted key
+     * @return value
+     */
+    private static @Nullable Object valueOf(@Nonnull Map<?, ?> section, @Nonnull String key) {
+        if (section.containsKey(key))
+            return section.get(key);
+
+        Object value = section;
+        for (String part : key.split("\\.")) {
+            Object plain = plainOf(value);
+            if (!(plain instanceof Map))
+                return null;
+            value = ((Map<?, ?>) plain).get(part);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the plain value as a list.
+     *
+     * @param value plain value
+     * @return list
+     */
+    private static @Nonnull List<?> listOf(@Nonnull Object value) {
+        if (value instanceof List)
+            return (List<?>) value;
+        if (value instanceof Collection)
+            return new ArrayList<>((Collection<?>) value);
+        throw new IllegalArgumentException(value + " can't be decoded to a list!");
+    }
+
+    /**
+     * Gets the plain value as a map.
+     *
+     * @param value plain value
+     * @return map
+     */
+    private static @Nonnull Map<?, ?> mapOf(@Nonnull Object value) {
+        if (value instanceof Map)
+            return (Map<?, ?>) value;
+        throw new IllegalArgumentException(value + " can't be decoded to a section!");
+    }
+
+    /**
+     * Gets the raw class of the type.
+     *
+     * @param type type
+     * @return raw class
+     */
+    private static @Nonnull Class<?> rawClassOf(@Nonnull Type type) {
+        if (type instanceof Class)
+            return (Class<?>) type;
+        if (type instanceof ParameterizedType)
+            return rawClassOf(((ParameterizedType) type).getRawType());
+        if (type instanceof WildcardType)
+            return rawClassOf(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof GenericArrayType)
+            return Array.newInstance(rawClassOf(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        return Object.class;
+    }
+
+    /**
+     * Gets the type argument of the
+     * type at the given index.
+     *
+     * @param type  type
+     * @param index index of the argument
+     * @return type argument, Object if it is raw
+     */
+    private static @Nonnull Type typeArgumentOf(@Nonnull Type type, int index) {
+        if (!(type instanceof ParameterizedType))
+            return Object.class;
+
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+        return (index < arguments.length) ? arguments[index] : Object.class;
+    }
+
+    /**
+     * Gets the component type of the array type.
+     *
+     * @param type array type
+     * @return component type
+     */
+    private static @Nonnull Type componentTypeOf(@Nonnull Type type) {
+        if (type instanceof GenericArrayType)
+            return ((GenericArrayType) type).getGenericComponentType();
+        return rawClassOf(type).getComponentType();
+    }
+
+
+
+    /**
+     * Record is the invocation handler
+     * of the decoded interfaces.
+     */
+    private static final class Record implements InvocationHandler {
+
+        private final Class<?> clazz;
+        private final Map<Method, Object> values;
+        private final Map<Method, MethodHandle> defaults;
+
+        /**
+         * Constructor of Record.
+         *
+         * @param clazz    interface
+         * @param values   decoded values of the methods
+         * @param defaults handles of the default methods
+         */
+        private Record(@Nonnull Class<?> clazz,
+                       @Nonnull Map<Method, Object> values,
+                       @Nonnull Map<Method, MethodHandle> defaults) {
+            this.clazz = clazz;
+            this.values = values;
+            this.defaults = defaults;
+        }
+
+        /**
+         * Returns the decoded value of the method,
+         * or calls it if it is a default method.
+         *
+         * @param proxy  proxy
+         * @param method method
+         * @param args   arguments
+         * @return value
+         */
+        @Override
+        public @Nullable Object invoke(@Nonnull Object proxy,
+                                       @Nonnull Method method,
+                                       @Nullable Object[] args) throws Throwable {
+            if (this.values.containsKey(method))
+                return this.values.get(method);
+
+            MethodHandle handle = this.defaults.get(method);
+            if (handle != null)
+                return handle.bindTo(proxy).invokeWithArguments((args == null) ? new Object[0] : args);
+
+            switch (method.getName()) {
+                case "toString":
+                    return this.clazz.getSimpleName() + this.values.values();
+                case "hashCode":
+                    return this.values.hashCode();
+                case "equals":
+                    return args[0] != null && Proxy.isProxyClass(args[0].getClass()) &&
+                            Proxy.getInvocationHandler(args[0]) instanceof Record &&
+                            this.values.equals(((Record) Proxy.getInvocationHandler(args[0])).values);
+                default:
+                    throw new UnsupportedOperationException(method.getName() + " is not a config value!");
+            }
+        }
+    }
+}
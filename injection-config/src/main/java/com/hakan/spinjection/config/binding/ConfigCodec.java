@@ -0,0 +1,29 @@
+package com.hakan.spinjection.config.binding;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+
+/**
+ * ConfigCodec decodes a value of the config
+ * file to a type. Codecs are registered to
+ * {@link ConfigCodecs} by their types.
+ *
+ * @param <T> decoded type
+ */
+@FunctionalInterface
+public interface ConfigCodec<T> {
+
+    /**
+     * Decodes the value of the config file.
+     * Values are one of {@link String}, {@link Number},
+     * {@link Boolean}, {@link java.util.List} or
+     * {@link java.util.Map} with string keys.
+     *
+     * @param value value
+     * @param type  generic type to decode
+     * @return decoded value
+     */
+    @Nullable
+    T decode(@Nonnull Object value, @Nonnull Type type);
+}
@@ -0,0 +1,120 @@
+package com.hakan.spinjection.config.binding;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ConfigCodecs class to register and
+ * find the codecs of the config values.
+ * <p>
+ * Codecs of {@link Duration} and {@link UUID}
+ * are registered by default. Codecs must be
+ * registered before the config files are loaded.
+ */
+@SuppressWarnings({"unchecked"})
+public class ConfigCodecs {
+
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d+)\\s*(ms|d|h|m|s)", Pattern.CASE_INSENSITIVE);
+    private static final Map<Class<?>, ConfigCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    static {
+        register(Duration.class, ConfigCodecs::decodeDuration);
+        register(UUID.class, (value, type) -> UUID.fromString(value.toString()));
+    }
+
+    /**
+     * Registers the codec of the type.
+     *
+     * @param type  type
+     * @param codec codec
+     * @param <T>   type
+     */
+    public static <T> void register(@Nonnull Class<T> type,
+                                    @Nonnull ConfigCodec<T> codec) {
+        codecs.put(type, codec);
+    }
+
+    /**
+     * Finds the codec of the type.
+     *
+     * @param type type
+     * @param <T>  type
+     * @return codec
+     */
+    public static @Nonnull <T> Optional<ConfigCodec<T>> findByType(@Nonnull Class<T> type) {
+        return Optional.ofNullable((ConfigCodec<T>) codecs.get(type));
+    }
+
+    /**
+     * Gets all registered types.
+     *
+     * @return types
+     */
+    public static @Nonnull Collection<Class<?>> getTypes() {
+        return Collections.unmodifiableCollection(codecs.keySet());
+    }
+
+
+
+    /**
+     * Decodes a duration. Numbers are milliseconds,
+     * texts are ISO-8601 durations such as "PT1M30S"
+     * or compact durations such as "1h 30m 15s".
+     *
+     * @param value value
+     * @param type  type
+     * @return duration
+     */
+    private static @Nonnull Duration decodeDuration(@Nonnull Object value,
+                                                    @Nonnull Type type) {
+        if (value instanceof Number)
+            return Duration.ofMillis(((Number) value).longValue());
+
+        String text = value.toString().trim();
+        if (text.startsWith("P") || text.startsWith("-P"))
+            return Duration.parse(text);
+
+        Matcher matcher = DURATION_PATTERN.matcher(text);
+        Duration duration = Duration.ZERO;
+        int end = 0;
+
+        while (matcher.find()) {
+            if (!text.substring(end, matcher.start()).trim().isEmpty())
+                break;
+
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2).toLowerCase()) {
+                case "d":
+                    duration = duration.plusDays(amount);
+                    break;
+                case "h":
+                    duration = duration.plusHours(amount);
+                    break;
+                case "m":
+                    duration = duration.plusMinutes(amount);
+                    break;
+                case "s":
+                    duration = duration.plusSeconds(amount);
+                    break;
+                default:
+                    duration = duration.plusNanos(TimeUnit.MILLISECONDS.toNanos(amount));
+                    break;
+            }
+            end = matcher.end();
+        }
+
+        if (end == 0 || end != text.length())
+            throw new IllegalArgumentException("invalid duration " + text + "!");
+        return duration;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hakan.spinjection.config.change;
+
+/**
+ * Change type enum.
+ */
+public enum ChangeType {
+
+    ADDED,
+    REMOVED,
+    CHANGED
+}
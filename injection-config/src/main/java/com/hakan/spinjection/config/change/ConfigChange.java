@@ -0,0 +1,53 @@
+package com.hakan.spinjection.config.change;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ConfigChange is a change of a single
+ * key of the config file between two loads.
+ * Keys are the full paths of the values,
+ * such as "items.sword.damage".
+ */
+public final class ConfigChange {
+
+    private final String key;
+    private final ChangeType type;
+
+    /**
+     * Constructor of ConfigChange.
+     *
+     * @param key  key
+     * @param type change type
+     */
+    public ConfigChange(@Nonnull String key,
+                        @Nonnull ChangeType type) {
+        this.key = key;
+        this.type = type;
+    }
+
+    /**
+     * Gets the key of the change.
+     *
+     * @return key
+     */
+    public @Nonnull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets the type of the change.
+     *
+     * @return change type
+     */
+    public @Nonnull ChangeType getType() {
+        return this.type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nonnull String toString() {
+        return this.type + " " + this.key;
+    }
+}
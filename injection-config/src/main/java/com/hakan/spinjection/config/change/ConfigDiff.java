@@ -0,0 +1,164 @@
+package com.hakan.spinjection.config.change;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ConfigDiff is the key-level difference of
+ * the config file between two loads. It is
+ * computed from the leaf values of the config
+ * file, which are mapped by their full keys.
+ * Lists are leaf values, so a change in a list
+ * is a change of the key of the list.
+ */
+public final class ConfigDiff {
+
+    private static final ConfigDiff EMPTY = new ConfigDiff(Collections.emptyMap());
+
+    /**
+     * Computes the difference of the leaf values.
+     *
+     * @param before leaf values before the load
+     * @param after  leaf values after the load
+     * @return difference
+     */
+    public static @Nonnull ConfigDiff of(@Nonnull Map<String, ?> before,
+                                         @Nonnull Map<String, ?> after) {
+        Map<String, ConfigChange> changes = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ?> entry : before.entrySet()) {
+            String key = entry.getKey();
+            if (!after.containsKey(key))
+                changes.put(key, new ConfigChange(key, ChangeType.REMOVED));
+            else if (!Objects.equals(entry.getValue(), after.get(key)))
+                changes.put(key, new ConfigChange(key, ChangeType.CHANGED));
+        }
+        for (String key : after.keySet()) {
+            if (!before.containsKey(key))
+                changes.put(key, new ConfigChange(key, ChangeType.ADDED));
+        }
+
+        return changes.isEmpty() ? EMPTY : new ConfigDiff(changes);
+    }
+
+
+
+    private final Map<String, ConfigChange> changes;
+
+    /**
+     * Constructor of ConfigDiff.
+     *
+     * @param changes changes by their keys
+     */
+    private ConfigDiff(@Nonnull Map<String, ConfigChange> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Checks if there is no change.
+     *
+     * @return true if there is no change
+     */
+    public boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * Gets the changed keys.
+     *
+     * @return changed keys
+     */
+    public @Nonnull Set<String> getKeys() {
+        return this.changes.keySet();
+    }
+
+    /**
+     * Gets the changes.
+     *
+     * @return changes
+     */
+    public @Nonnull Collection<ConfigChange> getChanges() {
+        return this.changes.values();
+    }
+
+    /**
+     * Gets the change of the key.
+     *
+     * @param key key
+     * @return change, null if the key is not changed
+     */
+    public @Nullable ConfigChange getChange(@Nonnull String key) {
+        return this.changes.get(key);
+    }
+
+    /**
+     * Checks if the key or any key
+     * under it is changed.
+     *
+     * @param prefix key prefix
+     * @return true if it is changed
+     */
+    public boolean isChanged(@Nonnull String prefix) {
+        for (String key : this.changes.keySet()) {
+            if (matches(prefix, key))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Filters the changes of the keys under the
+     * prefix. Changes of the parents of the prefix
+     * are also included, since the value of the
+     * prefix is changed with them.
+     *
+     * @param prefix key prefix, empty for all keys
+     * @return filtered difference
+     */
+    public @Nonnull ConfigDiff filter(@Nonnull String prefix) {
+        if (prefix.isEmpty())
+            return this;
+
+        Map<String, ConfigChange> filtered = new LinkedHashMap<>();
+        for (ConfigChange change : this.changes.values()) {
+            if (matches(prefix, change.getKey()))
+                filtered.put(change.getKey(), change);
+        }
+
+        if (filtered.size() == this.changes.size())
+            return this;
+        return filtered.isEmpty() ? EMPTY : new ConfigDiff(filtered);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nonnull String toString() {
+        return this.changes.values().toString();
+    }
+
+
+
+    /**
+     * Checks if the key is the prefix, under
+     * the prefix or a parent of the prefix.
+     *
+     * @param prefix key prefix
+     * @param key    key
+     * @return true if it matches
+     */
+    private static boolean matches(@Nonnull String prefix, @Nonnull String key) {
+        if (prefix.isEmpty() || key.equals(prefix))
+            return true;
+        if (key.length() > prefix.length())
+            return key.startsWith(prefix) && key.charAt(prefix.length()) == '.';
+        return prefix.startsWith(key) && prefix.charAt(key.length()) == '.';
+    }
+}
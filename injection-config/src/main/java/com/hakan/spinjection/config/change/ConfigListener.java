@@ -0,0 +1,19 @@
+package com.hakan.spinjection.config.change;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ConfigListener is notified when the
+ * keys it is subscribed to are changed
+ * by a reload of the config file.
+ */
+@FunctionalInterface
+public interface ConfigListener {
+
+    /**
+     * Runs when the subscribed keys are changed.
+     *
+     * @param diff changes of the subscribed keys
+     */
+    void onChange(@Nonnull ConfigDiff diff);
+}
@@ -0,0 +1,76 @@
+package com.hakan.spinjection.config.change;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ConfigSubscription is a subscription of a
+ * listener to the keys under a prefix.
+ */
+public final class ConfigSubscription {
+
+    private final String prefix;
+    private final ConfigListener listener;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor of ConfigSubscription.
+     *
+     * @param prefix   key prefix, empty for all keys
+     * @param listener listener
+     */
+    public ConfigSubscription(@Nonnull String prefix,
+                              @Nonnull ConfigListener listener) {
+        this.prefix = prefix;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the key prefix.
+     *
+     * @return key prefix
+     */
+    public @Nonnull String getPrefix() {
+        return this.prefix;
+    }
+
+    /**
+     * Gets the listener.
+     *
+     * @return listener
+     */
+    public @Nonnull ConfigListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Checks if the subscription is cancelled.
+     *
+     * @return true if it is cancelled
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Cancels the subscription, the listener
+     * is not notified after this.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Dispatches the changes under the prefix
+     * to the listener, if there are any.
+     *
+     * @param diff all changes of the config file
+     */
+    public void dispatch(@Nonnull ConfigDiff diff) {
+        if (this.cancelled)
+            return;
+
+        ConfigDiff filtered = diff.filter(this.prefix);
+        if (!filtered.isEmpty())
+            this.listener.onChange(filtered);
+    }
+}
@@ -1,5 +1,9 @@
 package com.hakan.spinjection.config.configuration;
 
+import com.hakan.spinjection.config.change.ConfigListener;
+import com.hakan.spinjection.config.change.ConfigSubscription;
+import com.hakan.spinjection.metrics.Histogram;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -56,4 +60,24 @@ public interface BaseConfiguration {
      * Reloads the config file.
      */
     void reload();
+
+    /**
+     * Gets the load times of the config file.
+     *
+     * @return load time histogram.
+     */
+    @Nonnull
+    Histogram getLoadTime();
+
+    /**
+     * Subscribes the listener to the keys under the
+     * prefix. The listener is notified after a reload
+     * only if any of these keys are changed.
+     *
+     * @param prefix   key prefix, empty for all keys.
+     * @param listener listener.
+     * @return subscription.
+     */
+    @Nonnull
+    ConfigSubscription subscribe(@Nonnull String prefix, @Nonnull ConfigListener listener);
 }
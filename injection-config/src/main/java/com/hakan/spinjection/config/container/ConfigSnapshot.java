@@ -0,0 +1,352 @@
+package com.hakan.spinjection.config.container;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * ConfigSnapshot is a compact binary copy of a
+ * parsed config file, which is written next to
+ * the file and read back in a single read
+ * instead of parsing the file again. It is
+ * read into a heap buffer, not mapped, so the
+ * snapshot file is not held open and can be
+ * replaced on every platform.
+ * <p>
+ * A snapshot keeps the size and the checksum of
+ * the file it is made from, so it is only used
+ * while the file is not changed, and a checksum
+ * of its own content, so a damaged snapshot is
+ * ignored. Texts are kept once in a string table
+ * and referred by index.
+ * <p>
+ * Snapshots hold plain trees of maps with string
+ * keys, lists, texts, booleans and numbers. Numbers
+ * other than int, long and double are kept as
+ * texts and read back as {@link BigInteger} or
+ * {@link BigDecimal}.
+ */
+final class ConfigSnapshot {
+
+    private static final int MAGIC = 0x53504353;
+    private static final byte VERSION = 2;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte STRING = 6;
+    private static final byte LIST = 7;
+    private static final byte MAP = 8;
+    private static final byte NUMBER = 9;
+
+    /**
+     * Reads the snapshot of the source file.
+     *
+     * @param source   source file
+     * @param snapshot snapshot file
+     * @return plain tree, null if the snapshot is
+     * missing, corrupt or made from another content
+     */
+    @SuppressWarnings("unchecked")
+    static @Nullable Map<String, Object> read(@Nonnull File source,
+                                              @Nonnull File snapshot) {
+        if (!source.isFile() || !snapshot.isFile())
+            return null;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshot.toPath()));
+
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION)
+                return null;
+            if (buffer.getLong() != source.length() || buffer.getLong() != FileFingerprint.checksumOf(source))
+                return null;
+
+            long checksum = buffer.getLong();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum)
+                return null;
+
+            String[] strings = new String[readLength(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readLength(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            Object tree = readValue(buffer, strings);
+            return (tree instanceof Map) ? (Map<String, Object>) tree : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot of the source file.
+     * The snapshot is written to a temporary
+     * file and moved over the old snapshot.
+     *
+     * @param source   source file
+     * @param snapshot snapshot file
+     * @param tree     plain tree
+     * @return true if it is written, false if the tree
+     * has values which can't be kept in a snapshot
+     */
+    static boolean write(@Nonnull File source,
+                         @Nonnull File snapshot,
+                         @Nonnull Map<String, Object> tree) {
+        if (!source.isFile())
+            return false;
+
+        try {
+            Map<String, Integer> strings = new LinkedHashMap<>();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (!writeValue(new DataOutputStream(body), tree, strings))
+                return false;
+
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(body.size() + 64);
+            DataOutputStream payloadOutput = new DataOutputStream(payload);
+            writeVarInt(payloadOutput, strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(payloadOutput, bytes.length);
+                payloadOutput.write(bytes);
+            }
+            body.writeTo(payloadOutput);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.toByteArray());
+
+            Path temp = snapshot.toPath().resolveSibling(snapshot.getName() + ".tmp");
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temp))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                output.writeLong(source.length());
+                output.writeLong(FileFingerprint.checksumOf(source));
+                output.writeLong(crc.getValue());
+                payload.writeTo(output);
+            }
+
+            Files.move(temp, snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+
+    /**
+     * Reads a value from the buffer.
+     *
+     * @param buffer  buffer
+     * @param strings string table
+     * @return value
+     */
+    private static @Nullable Object readValue(@Nonnull ByteBuffer buffer,
+                                              @Nonnull String[] strings) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case INT:
+                return (int) readVarLong(buffer);
+            case LONG:
+                return readVarLong(buffer);
+            case DOUBLE:
+                return buffer.getDouble();
+            case STRING:
+                return strings[readVarInt(buffer)];
+            case NUMBER: {
+                String text = strings[readVarInt(buffer)];
+                return text.matches("-?\\d+") ? new BigInteger(text) : new BigDecimal(text);
+            }
+            case LIST: {
+                int size = readLength(buffer);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(readValue(buffer, strings));
+                return list;
+            }
+            case MAP: {
+                int size = readLength(buffer);
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++)
+                    map.put(strings[readVarInt(buffer)], readValue(buffer, strings));
+                return map;
+            }
+            default:
+                throw new IndexOutOfBoundsException("unknown value type " + type);
+        }
+    }
+
+    /**
+     * Writes a value to the output.
+     *
+     * @param output  output
+     * @param value   value
+     * @param strings string table
+     * @return false if the value can't be written
+     */
+    private static boolean writeValue(@Nonnull DataOutputStream output,
+                                      @Nullable Object value,
+                                      @Nonnull Map<String, Integer> strings) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(INT);
+            writeVarLong(output, ((Number) value).longValue());
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            writeVarLong(output, (Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            output.writeByte(NUMBER);
+            writeVarInt(output, indexOf(value.toString(), strings));
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeVarInt(output, indexOf((String) value, strings));
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            output.writeByte(LIST);
+            writeVarInt(output, list.size());
+            for (Object element : list) {
+                if (!writeValue(output, element, strings))
+                    return false;
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(MAP);
+            writeVarInt(output, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String))
+                    return false;
+                writeVarInt(output, indexOf((String) entry.getKey(), strings));
+                if (!writeValue(output, entry.getValue(), strings))
+                    return false;
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the index of the string in the
+     * string table, adds it if it is missing.
+     *
+     * @param string  string
+     * @param strings string table
+     * @return index
+     */
+    private static int indexOf(@Nonnull String string,
+                               @Nonnull Map<String, Integer> strings) {
+        Integer index = strings.get(string);
+        if (index == null)
+            strings.put(string, index = strings.size());
+        return index;
+    }
+
+    /**
+     * Reads an unsigned variable-length int.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static int readVarInt(@Nonnull ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+
+    /**
+     * Reads a length or a count. Every counted
+     * item takes at least one byte, so lengths
+     * which are negative or longer than the rest
+     * of the buffer are corrupt.
+     *
+     * @param buffer buffer
+     * @return length
+     */
+    private static int readLength(@Nonnull ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining())
+            throw new IllegalStateException("corrupt length " + length);
+        return length;
+    }
+
+    /**
+     * Reads a zigzag variable-length long.
+     *
+     * @param buffer buffer
+     * @return value
+     */
+    private static long readVarLong(@Nonnull ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    /**
+     * Writes an unsigned variable-length int.
+     *
+     * @param output output
+     * @param value  value
+     */
+    private static void writeVarInt(@Nonnull DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    /**
+     * Writes a zigzag variable-length long.
+     *
+     * @param output output
+     * @param value  value
+     */
+    private static void writeVarLong(@Nonnull DataOutputStream output, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            output.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        output.writeByte((int) zigzag);
+    }
+}
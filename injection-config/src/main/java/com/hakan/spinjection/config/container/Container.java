@@ -2,20 +2,63 @@ package com.hakan.spinjection.config.container;
 
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.ConfigValue;
+import com.hakan.spinjection.config.change.ConfigDiff;
+import com.hakan.spinjection.config.change.ConfigListener;
+import com.hakan.spinjection.config.change.ConfigSubscription;
+import com.hakan.spinjection.config.schedulers.ConfigWriteBehind;
+import com.hakan.spinjection.metrics.Histogram;
+import org.bukkit.Bukkit;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 /**
  * ConfigContainer is an abstract class
  * that is used to load and save config files.
+ * <p>
+ * Values of the {@link ConfigValue} methods are
+ * cached after they are read and colored once.
+ * Implementations must call {@link #invalidate()}
+ * after the data is changed, {@link #recordLoad(long)}
+ * after the file is loaded and {@link #recordSave()}
+ * after the file is saved.
+ * <p>
+ * If the snapshot is enabled, implementations read
+ * the snapshot by {@link #readSnapshot()} before
+ * parsing the file, and write it by
+ * {@link #writeSnapshot(Map)} after parsing or
+ * saving the file.
+ * <p>
+ * Reloads notify the subscriptions with the keys
+ * which are changed. Implementations capture the
+ * leaf values by {@link #captureLeaves()} before
+ * a reload and pass them to
+ * {@link #publishChanges(Map)} after it.
  */
+@SuppressWarnings({"unchecked"})
 public abstract class Container {
 
+    private static final Object NULL = new Object();
+
+
+
     protected final Object instance;
     protected final String path;
     protected final String resource;
+    protected final boolean snapshot;
+    private final Histogram loadTime;
+    private volatile Map<Method, Object> values;
+    private volatile ConfigWriteBehind writeBehind;
+    private volatile FileFingerprint fingerprint;
+    private final List<ConfigSubscription> subscriptions;
 
     /**
      * Creates a new ConfigContainer.
@@ -28,6 +71,10 @@ public abstract class Container {
         this.instance = instance;
         this.path = annotation.path();
         this.resource = annotation.resource();
+        this.snapshot = annotation.snapshot();
+        this.values = new ConcurrentHashMap<>();
+        this.loadTime = new Histogram();
+        this.subscriptions = new CopyOnWriteArrayList<>();
     }
 
 
@@ -58,7 +105,218 @@ public abstract class Container {
         return this.resource;
     }
 
+    /**
+     * Gets the write-behind of the config file.
+     *
+     * @return write-behind, null if it is disabled
+     */
+    public @Nullable ConfigWriteBehind getWriteBehind() {
+        return this.writeBehind;
+    }
+
+    /**
+     * Sets the write-behind of the config file.
+     * Saves which are requested by set methods
+     * are passed to the write-behind after this.
+     *
+     * @param writeBehind write-behind
+     */
+    public void setWriteBehind(@Nullable ConfigWriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Gets the load times of the config file
+     * on creation and on every reload.
+     *
+     * @return load time histogram
+     */
+    public @Nonnull Histogram getLoadTime() {
+        return this.loadTime;
+    }
+
+
+
+    /**
+     * Gets the cached value of the method. If it
+     * is not cached yet, it is read and colored
+     * by {@link #get(Method, ConfigValue)}.
+     *
+     * @param method     method
+     * @param annotation ConfigValue annotation
+     * @param <T>        value type
+     * @return value
+     */
+    public final @Nullable <T> T getValue(@Nonnull Method method,
+                                          @Nonnull ConfigValue annotation) {
+        Map<Method, Object> values = this.values;
+
+        Object value = values.get(method);
+        if (value == null) {
+            Object loaded = this.get(method, annotation);
+            value = (loaded == null) ? NULL : loaded;
+            values.putIfAbsent(method, value);
+        }
+
+        return (value == NULL) ? null : (T) value;
+    }
+
+    /**
+     * Drops all cached values. The cache is replaced
+     * at once, so values which are read from the old
+     * data are never cached after this call.
+     */
+    protected void invalidate() {
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Subscribes the listener to the keys under
+     * the prefix. The listener is notified on the
+     * thread which reloads the config file, only
+     * if any of these keys are changed.
+     *
+     * @param prefix   key prefix, empty for all keys
+     * @param listener listener
+     * @return subscription
+     */
+    public @Nonnull ConfigSubscription subscribe(@Nonnull String prefix,
+                                                 @Nonnull ConfigListener listener) {
+        ConfigSubscription subscription = new ConfigSubscription(prefix, listener);
+        this.subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Checks if the config file is changed
+     * since it is loaded or saved last time.
+     *
+     * @return true if it is changed
+     */
+    public synchronized boolean isChanged() {
+        FileFingerprint fingerprint = this.fingerprint;
+        return fingerprint == null || !fingerprint.matches(new File(this.path));
+    }
+
+    /**
+     * Reloads the config file only if it is
+     * changed since it is loaded or saved last
+     * time, so saves of the container itself
+     * do not cause reloads.
+     *
+     * @return true if it is reloaded
+     */
+    public synchronized boolean reloadIfChanged() {
+        if (!this.isChanged())
+            return false;
+
+        this.reload();
+        return true;
+    }
+
+    /**
+     * Saves the config file after a change. If the
+     * write-behind is enabled, the config file is
+     * only marked as dirty to be saved later.
+     */
+    protected void requestSave() {
+        ConfigWriteBehind writeBehind = this.writeBehind;
+        if (writeBehind != null)
+            writeBehind.markDirty();
+        else
+            this.save();
+    }
+
+    /**
+     * Captures the leaf values before a reload.
+     * Leaves are only captured if there are
+     * subscriptions to notify.
+     *
+     * @return leaf values, null if there is no subscription
+     */
+    protected @Nullable Map<String, Object> captureLeaves() {
+        this.subscriptions.removeIf(ConfigSubscription::isCancelled);
+        return this.subscriptions.isEmpty() ? null : this.getLeaves();
+    }
+
+    /**
+     * Notifies the subscriptions with the keys
+     * which are changed since the leaf values
+     * are captured. Failures of the listeners
+     * are logged, so the other subscriptions are
+     * notified and the reload is not failed.
+     *
+     * @param before leaf values which are captured
+     *               by {@link #captureLeaves()}
+     */
+    protected void publishChanges(@Nullable Map<String, Object> before) {
+        if (before == null)
+            return;
+
+        ConfigDiff diff = ConfigDiff.of(before, this.getLeaves());
+        if (diff.isEmpty())
+            return;
+
+        for (ConfigSubscription subscription : this.subscriptions) {
+            try {
+                subscription.dispatch(diff);
+            } catch (RuntimeException e) {
+                Bukkit.getLogger().log(Level.WARNING, "config listener of " + this.path + " threw an exception", e);
+            }
+        }
+    }
+
+    /**
+     * Records a load of the config file
+     * which is started at the given time.
+     *
+     * @param start start time as {@link System#nanoTime()}
+     */
+    protected void recordLoad(long start) {
+        this.loadTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        this.fingerprint = FileFingerprint.of(new File(this.path));
+    }
+
+    /**
+     * Records a save of the config file.
+     */
+    protected void recordSave() {
+        this.fingerprint = FileFingerprint.of(new File(this.path));
+    }
+
+    /**
+     * Reads the binary snapshot of the config file.
+     *
+     * @return plain tree of the config file, null if
+     * the snapshot is disabled, missing or made from
+     * another content of the config file
+     */
+    protected @Nullable Map<String, Object> readSnapshot() {
+        if (!this.snapshot)
+            return null;
+        return ConfigSnapshot.read(new File(this.path), new File(this.path + ".snapshot"));
+    }
+
+    /**
+     * Writes the binary snapshot of the config
+     * file if the snapshot is enabled. The tree
+     * must be the current content of the file.
+     *
+     * @param tree plain tree of the config file
+     */
+    protected void writeSnapshot(@Nonnull Map<String, Object> tree) {
+        if (this.snapshot)
+            ConfigSnapshot.write(new File(this.path), new File(this.path + ".snapshot"), tree);
+    }
 
+    /**
+     * Gets the leaf values of the config file by
+     * their full keys. Sections are not leaves,
+     * but empty sections are.
+     *
+     * @return leaf values
+     */
+    protected abstract @Nonnull Map<String, Object> getLeaves();
 
     /**
      * Gets value from config file
@@ -82,8 +340,10 @@ public abstract class Container {
     public abstract @Nullable <T> T get(@Nonnull String key, @Nonnull Class<T> clazz);
 
     /**
-     * Gets value from config file with the given key, and if
-     * colored is true and value is String, it will be colored.
+     * Gets value from config file with the given key, and decodes
+     * it to the generic return type of the method by
+     * {@link com.hakan.spinjection.config.binding.ConfigBinder}.
+     * If colored is true, texts will be colored.
      *
      * @param method     method
      * @param annotation ConfigValue annotation
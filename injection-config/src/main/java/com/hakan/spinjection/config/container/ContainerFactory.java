@@ -3,15 +3,30 @@ package com.hakan.spinjection.config.container;
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.container.impl.JsonContainer;
 import com.hakan.spinjection.config.container.impl.YamlContainer;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ContainerFactory is a factory class
  * that is used to create ConfigContainer.
+ * Containers of the plugins are registered by
+ * the path of their config file until the
+ * plugin is disabled.
  */
 public class ContainerFactory {
 
+    private static final Map<String, Container> containers = new ConcurrentHashMap<>();
+
     /**
      * Create a new ConfigContainer.
      *
@@ -27,4 +42,54 @@ public class ContainerFactory {
             return new JsonContainer(instance, annotation);
         throw new IllegalArgumentException("unsupported config file type!");
     }
+
+    /**
+     * Creates a new ConfigContainer of the plugin
+     * and registers it until the plugin is disabled.
+     *
+     * @param plugin     plugin
+     * @param instance   instance of the class
+     * @param annotation configFile annotation
+     * @return new instance of ConfigContainer
+     */
+    public static @Nonnull Container of(@Nonnull Plugin plugin,
+                                        @Nonnull Object instance,
+                                        @Nonnull ConfigFile annotation) {
+        Container container = of(instance, annotation);
+        containers.put(container.getPath(), container);
+
+        Bukkit.getPluginManager().registerEvent(
+                PluginDisableEvent.class,
+                new Listener() {
+                },
+                EventPriority.MONITOR,
+                (listener, event) -> {
+                    if (((PluginDisableEvent) event).getPlugin() == plugin)
+                        containers.remove(container.getPath(), container);
+                },
+                plugin,
+                false
+        );
+        return container;
+    }
+
+    /**
+     * Finds the container of
+     * the given config file.
+     *
+     * @param path path of the config file
+     * @return container
+     */
+    public static @Nonnull Optional<Container> findByPath(@Nonnull String path) {
+        return Optional.ofNullable(containers.get(path));
+    }
+
+    /**
+     * Gets all containers.
+     *
+     * @return containers
+     */
+    public static @Nonnull Collection<Container> getAll() {
+        return Collections.unmodifiableCollection(containers.values());
+    }
 }
@@ -0,0 +1,87 @@
+package com.hakan.spinjection.config.container;
+
+import lombok.SneakyThrows;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * FileFingerprint is the modification time,
+ * size and checksum of a file at a moment.
+ * It is used to find out if the content of
+ * a file is really changed.
+ */
+final class FileFingerprint {
+
+    private final long modified;
+    private final long size;
+    private final long checksum;
+
+    /**
+     * Constructor of FileFingerprint.
+     *
+     * @param modified modification time
+     * @param size     size
+     * @param checksum checksum
+     */
+    private FileFingerprint(long modified, long size, long checksum) {
+        this.modified = modified;
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Creates the fingerprint of the file.
+     * Missing files have an empty fingerprint.
+     *
+     * @param file file
+     * @return fingerprint
+     */
+    static @Nonnull FileFingerprint of(@Nonnull File file) {
+        return new FileFingerprint(file.lastModified(), file.length(), checksumOf(file));
+    }
+
+    /**
+     * Checks if the file has the same content
+     * as this fingerprint. The checksum is only
+     * calculated if the modification time is
+     * changed but the size is the same.
+     *
+     * @param file file
+     * @return true if the content is the same
+     */
+    boolean matches(@Nonnull File file) {
+        long size = file.length();
+        if (size != this.size)
+            return false;
+        if (file.lastModified() == this.modified)
+            return true;
+        return checksumOf(file) == this.checksum;
+    }
+
+
+
+    /**
+     * Calculates the CRC32 checksum of the file.
+     *
+     * @param file file
+     * @return checksum, -1 if the file does not exist
+     */
+    @SneakyThrows
+    static long checksumOf(@Nonnull File file) {
+        if (!file.isFile())
+            return -1;
+
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream input = new FileInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) > 0)
+                crc.update(buffer, 0, read);
+        }
+        return crc.getValue();
+    }
+}
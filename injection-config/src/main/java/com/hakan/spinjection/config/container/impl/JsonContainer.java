@@ -1,20 +1,29 @@
 package com.hakan.spinjection.config.container.impl;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.ConfigValue;
+import com.hakan.spinjection.config.binding.ConfigBinder;
 import com.hakan.spinjection.config.container.Container;
-import com.hakan.spinjection.config.utils.ColorUtils;
 import com.hakan.spinjection.config.utils.JsonUtils;
 import lombok.SneakyThrows;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * {@inheritDoc}
+ * <p>
+ * The json tree is an immutable snapshot which
+ * is replaced at once by reloads and sets, so
+ * reads never lock and never see a half-loaded
+ * or half-changed tree.
  */
 @SuppressWarnings({"unchecked"})
 public class JsonContainer extends Container {
@@ -23,7 +32,7 @@ public class JsonContainer extends Container {
 
 
 
-    private JsonObject jsonObject;
+    private final AtomicReference<JsonObject> jsonObject;
 
     /**
      * {@inheritDoc}
@@ -31,7 +40,9 @@ public class JsonContainer extends Container {
     public JsonContainer(@Nonnull Object instance,
                          @Nonnull ConfigFile annotation) {
         super(instance, annotation);
-        this.jsonObject = JsonUtils.loadFromFile(annotation.path());
+        long start = System.nanoTime();
+        this.jsonObject = new AtomicReference<>(this.load());
+        super.recordLoad(start);
     }
 
     /**
@@ -39,7 +50,7 @@ public class JsonContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull String key) {
-        return (T) JsonUtils.getValue(this.jsonObject, key);
+        return (T) JsonUtils.getValue(this.jsonObject.get(), key);
     }
 
     /**
@@ -47,7 +58,7 @@ public class JsonContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull String key, @Nonnull Class<T> clazz) {
-        return clazz.cast(JsonUtils.getValue(this.jsonObject, key));
+        return clazz.cast(JsonUtils.getValue(this.jsonObject.get(), key));
     }
 
     /**
@@ -55,9 +66,17 @@ public class JsonContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull Method method, @Nonnull ConfigValue annotation) {
-        Object value = this.get(annotation.value(), method.getReturnType());
-        return ((value instanceof String) && (annotation.colored())) ?
-                (T) ColorUtils.colored(value.toString()) : (T) value;
+        return (T) ConfigBinder.decode(this.get(annotation.value()), method.getGenericReturnType(), annotation.colored());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @Nonnull Map<String, Object> getLeaves() {
+        Map<String, Object> leaves = new HashMap<>();
+        JsonUtils.collectLeaves(this.jsonObject.get(), "", leaves);
+        return leaves;
     }
 
     /**
@@ -73,8 +92,15 @@ public class JsonContainer extends Container {
      */
     @Override
     public @Nonnull Container set(@Nonnull String key, @Nonnull Object value, boolean save) {
-        JsonUtils.setValue(this.jsonObject, key, GSON.toJsonTree(value));
-        if (save) this.save();
+        JsonElement element = GSON.toJsonTree(value);
+
+        JsonObject current;
+        do {
+            current = this.jsonObject.get();
+        } while (!this.jsonObject.compareAndSet(current, JsonUtils.withValue(current, key, element)));
+
+        super.invalidate();
+        if (save) super.requestSave();
         return this;
     }
 
@@ -83,7 +109,10 @@ public class JsonContainer extends Container {
      */
     @Override
     public synchronized @Nonnull Container save() {
-        JsonUtils.saveToFile(this.jsonObject, super.path);
+        JsonObject jsonObject = this.jsonObject.get();
+        JsonUtils.saveToFile(jsonObject, super.path);
+        super.recordSave();
+        if (super.snapshot) super.writeSnapshot((Map<String, Object>) JsonUtils.toPlain(jsonObject));
         return this;
     }
 
@@ -93,7 +122,32 @@ public class JsonContainer extends Container {
     @Override
     @SneakyThrows
     public synchronized @Nonnull Container reload() {
-        this.jsonObject = JsonUtils.loadFromFile(super.path);
+        Map<String, Object> leaves = super.captureLeaves();
+        long start = System.nanoTime();
+        this.jsonObject.set(this.load());
+        super.recordLoad(start);
+        super.invalidate();
+        super.publishChanges(leaves);
         return this;
     }
+
+
+
+    /**
+     * Loads the json object from the binary snapshot
+     * if it is made from the current content of the
+     * file, otherwise parses the file and writes the
+     * snapshot of it.
+     *
+     * @return json object
+     */
+    private @Nonnull JsonObject load() {
+        Map<String, Object> tree = super.readSnapshot();
+        if (tree != null)
+            return JsonUtils.fromPlain(tree).getAsJsonObject();
+
+        JsonObject jsonObject = JsonUtils.loadFromFile(super.path);
+        if (super.snapshot) super.writeSnapshot((Map<String, Object>) JsonUtils.toPlain(jsonObject));
+        return jsonObject;
+    }
 }
\ No newline at end of file
@@ -2,25 +2,52 @@ package com.hakan.spinjection.config.container.impl;
 
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.ConfigValue;
+import com.hakan.spinjection.config.binding.ConfigBinder;
 import com.hakan.spinjection.config.container.Container;
-import com.hakan.spinjection.config.utils.ColorUtils;
 import lombok.SneakyThrows;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * {@inheritDoc}
+ * <p>
+ * The configuration is an immutable snapshot
+ * which is replaced at once by reloads and sets,
+ * so reads never lock and never see a half-loaded
+ * or half-changed configuration. A set copies
+ * only the sections along the path of its key,
+ * the other sections are shared by the copies,
+ * so the parent and the root of a section may
+ * belong to an older copy.
+ * <p>
+ * Bukkit 1.16.4 keeps only the header of the
+ * file, not the other comments. Binary snapshots
+ * don't keep the header either, so a configuration
+ * which is loaded from a snapshot is parsed from
+ * the file on the first set, and it is not saved
+ * until then. If the file can't be parsed anymore,
+ * the set fails and the configuration is not changed.
  */
 @SuppressWarnings({"unchecked"})
 public class YamlContainer extends Container {
 
     private final File file;
-    private final FileConfiguration configuration;
+    private final AtomicReference<State> state;
 
     /**
      * {@inheritDoc}
@@ -29,7 +56,9 @@ public class YamlContainer extends Container {
                          @Nonnull ConfigFile annotation) {
         super(instance, annotation);
         this.file = new File(super.path);
-        this.configuration = YamlConfiguration.loadConfiguration(this.file);
+        long start = System.nanoTime();
+        this.state = new AtomicReference<>(this.load(false));
+        super.recordLoad(start);
     }
 
     /**
@@ -37,7 +66,7 @@ public class YamlContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull String key) {
-        return (T) this.configuration.get(key);
+        return (T) this.state.get().configuration.get(key);
     }
 
     /**
@@ -45,7 +74,7 @@ public class YamlContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull String key, @Nonnull Class<T> clazz) {
-        return clazz.cast(this.configuration.get(key));
+        return clazz.cast(this.state.get().configuration.get(key));
     }
 
     /**
@@ -53,9 +82,18 @@ public class YamlContainer extends Container {
      */
     @Override
     public @Nullable <T> T get(@Nonnull Method method, @Nonnull ConfigValue annotation) {
-        Object value = this.get(annotation.value(), method.getReturnType());
-        return ((value instanceof String) && (annotation.colored())) ?
-                (T) ColorUtils.colored(value.toString()) : (T) value;
+        return (T) ConfigBinder.decode(this.get(annotation.value()), method.getGenericReturnType(), annotation.colored());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected @Nonnull Map<String, Object> getLeaves() {
+        FileConfiguration configuration = this.state.get().configuration;
+        Map<String, Object> leaves = new HashMap<>();
+        collectLeaves(configuration, "", configuration.options().pathSeparator(), leaves);
+        return leaves;
     }
 
     /**
@@ -71,8 +109,16 @@ public class YamlContainer extends Container {
      */
     @Override
     public @Nonnull Container set(@Nonnull String key, @Nonnull Object value, boolean save) {
-        this.configuration.set(key, value);
-        if (save) this.save();
+        State current;
+        FileConfiguration changed;
+        do {
+            current = this.state.get();
+            changed = current.snapshotLoaded ? this.parse() : copyOf(current.configuration, key);
+            changed.set(key, value);
+        } while (!this.state.compareAndSet(current, new State(changed, false)));
+
+        super.invalidate();
+        if (save) super.requestSave();
         return this;
     }
 
@@ -82,7 +128,16 @@ public class YamlContainer extends Container {
     @Override
     @SneakyThrows
     public synchronized @Nonnull Container save() {
-        this.configuration.save(this.file);
+        State state = this.state.get();
+        if (state.snapshotLoaded) {
+            super.recordSave();
+            return this;
+        }
+
+        FileConfiguration configuration = state.configuration;
+        configuration.save(this.file);
+        super.recordSave();
+        if (super.snapshot) super.writeSnapshot((Map<String, Object>) toPlain(configuration));
         return this;
     }
 
@@ -92,7 +147,227 @@ public class YamlContainer extends Container {
     @Override
     @SneakyThrows
     public synchronized @Nonnull Container reload() {
-        this.configuration.load(this.file);
+        Map<String, Object> leaves = super.captureLeaves();
+        long start = System.nanoTime();
+        this.state.set(this.load(true));
+        super.recordLoad(start);
+        super.invalidate();
+        super.publishChanges(leaves);
         return this;
     }
-}
\ No newline at end of file
+
+
+
+    /**
+     * Loads the configuration from the binary snapshot
+     * if it is made from the current content of the
+     * file, otherwise parses the file and writes the
+     * snapshot of it.
+     *
+     * @param strict throw errors of the file instead
+     *               of loading an empty configuration
+     * @return state of the loaded configuration
+     */
+    @SneakyThrows
+    private @Nonnull State load(boolean strict) {
+        Map<String, Object> tree = super.readSnapshot();
+        if (tree != null) {
+            try {
+                FileConfiguration configuration = new YamlConfiguration();
+                fill(configuration, tree);
+                return new State(configuration, true);
+            } catch (RuntimeException e) {
+                // objects of the snapshot can't be deserialized, parse the file
+            }
+        }
+
+        FileConfiguration configuration = strict ? this.parse() : YamlConfiguration.loadConfiguration(this.file);
+        if (super.snapshot) super.writeSnapshot((Map<String, Object>) toPlain(configuration));
+        return new State(configuration, false);
+    }
+
+    /**
+     * Parses the file. Errors of the file are
+     * thrown instead of loading an empty
+     * configuration.
+     *
+     * @return configuration
+     */
+    @SneakyThrows
+    private @Nonnull FileConfiguration parse() {
+        FileConfiguration configuration = new YamlConfiguration();
+        configuration.load(this.file);
+        return configuration;
+    }
+
+    /**
+     * Copies the configuration with its header
+     * and options for a set of the key. Only the
+     * sections along the path of the key are
+     * copied, the other values and sections are
+     * shared, since published configurations
+     * are never changed.
+     *
+     * @param configuration configuration
+     * @param key           key to set
+     * @return copy of the configuration
+     */
+    private static @Nonnull FileConfiguration copyOf(@Nonnull FileConfiguration configuration,
+                                                     @Nonnull String key) {
+        YamlConfiguration copy = new YamlConfiguration();
+        char separator = configuration.options().pathSeparator();
+        copy.options().pathSeparator(separator);
+        copy.options().header(configuration.options().header());
+        copy.options().copyHeader(configuration.options().copyHeader());
+        if (configuration instanceof YamlConfiguration)
+            copy.options().indent(((YamlConfiguration) configuration).options().indent());
+
+        ConfigurationSection source = configuration;
+        ConfigurationSection target = copy;
+        for (int start = 0; ; ) {
+            for (String name : source.getKeys(false))
+                target.set(name, source.get(name));
+
+            int end = key.indexOf(separator, start);
+            if (end < 0)
+                break;
+
+            String name = key.substring(start, end);
+            Object child = source.get(name);
+            if (!(child instanceof ConfigurationSection))
+                break;
+
+            source = (ConfigurationSection) child;
+            target = target.createSection(name);
+            start = end + 1;
+        }
+        return copy;
+    }
+
+    /**
+     * Collects the leaves of the section by their
+     * full keys. The keys are built here instead of
+     * {@link ConfigurationSection#getValues(boolean)},
+     * since shared sections have the root of the
+     * configuration they are first created in.
+     *
+     * @param section   section
+     * @param prefix    full key of the section
+     * @param separator path separator
+     * @param leaves    leaves
+     */
+    private static void collectLeaves(@Nonnull ConfigurationSection section,
+                                      @Nonnull String prefix,
+                                      char separator,
+                                      @Nonnull Map<String, Object> leaves) {
+        for (String name : section.getKeys(false)) {
+            String key = prefix.isEmpty() ? name : prefix + separator + name;
+            Object value = section.get(name);
+            if (!(value instanceof ConfigurationSection))
+                leaves.put(key, value);
+            else if (((ConfigurationSection) value).getKeys(false).isEmpty())
+                leaves.put(key, Collections.emptyMap());
+            else
+                collectLeaves((ConfigurationSection) value, key, separator, leaves);
+        }
+    }
+
+    /**
+     * Converts the value to a plain tree. Sections
+     * are converted to maps, and serializable
+     * objects are converted to their serialized
+     * maps with their aliases.
+     *
+     * @param value value
+     * @return plain value
+     */
+    private static @Nullable Object toPlain(@Nullable Object value) {
+        if (value instanceof ConfigurationSection) {
+            return toPlain(((ConfigurationSection) value).getValues(false));
+        } else if (value instanceof ConfigurationSerializable) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias((Class<? extends ConfigurationSerializable>) value.getClass()));
+            map.putAll((Map<String, Object>) toPlain(((ConfigurationSerializable) value).serialize()));
+            return map;
+        } else if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                map.put(entry.getKey(), toPlain(entry.getValue()));
+            return map;
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value)
+                list.add(toPlain(element));
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * Converts the plain value back. Maps
+     * with aliases are deserialized.
+     *
+     * @param value plain value
+     * @return value
+     */
+    private static @Nullable Object fromPlain(@Nullable Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet())
+                map.put(entry.getKey(), fromPlain(entry.getValue()));
+            return map.containsKey(ConfigurationSerialization.SERIALIZED_TYPE_KEY) ? ConfigurationSerialization.deserializeObject(map) : map;
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value)
+                list.add(fromPlain(element));
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * Fills the section with the plain tree,
+     * maps are created as sections.
+     *
+     * @param section section
+     * @param tree    plain tree
+     */
+    private static void fill(@Nonnull ConfigurationSection section,
+                             @Nonnull Map<String, Object> tree) {
+        for (Map.Entry<String, Object> entry : tree.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map && !((Map<?, ?>) value).containsKey(ConfigurationSerialization.SERIALIZED_TYPE_KEY))
+                fill(section.createSection(entry.getKey()), (Map<String, Object>) value);
+            else
+                section.set(entry.getKey(), fromPlain(value));
+        }
+    }
+
+
+
+    /**
+     * State is the published configuration together
+     * with whether it is loaded from the snapshot,
+     * so a set decides between parsing the file and
+     * copying the configuration from the same state
+     * it replaces.
+     */
+    private static final class State {
+
+        private final FileConfiguration configuration;
+        private final boolean snapshotLoaded;
+
+        /**
+         * Constructor of State.
+         *
+         * @param configuration  configuration
+         * @param snapshotLoaded true if it is loaded
+         *                       from the snapshot
+         */
+        private State(@Nonnull FileConfiguration configuration,
+                      boolean snapshotLoaded) {
+            this.configuration = configuration;
+            this.snapshotLoaded = snapshotLoaded;
+        }
+    }
+}
@@ -3,20 +3,29 @@ package com.hakan.spinjection.config.executor;
 import com.hakan.spinjection.SpigotBootstrap;
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.ConfigValue;
+import com.hakan.spinjection.config.change.ConfigListener;
 import com.hakan.spinjection.config.container.Container;
 import com.hakan.spinjection.config.container.ContainerFactory;
 import com.hakan.spinjection.config.schedulers.ConfigReloadScheduler;
 import com.hakan.spinjection.config.schedulers.ConfigSaveScheduler;
+import com.hakan.spinjection.config.schedulers.ConfigWriteBehind;
 import com.hakan.spinjection.config.utils.ConfigUtils;
+import com.hakan.spinjection.config.utils.ConfigUtils.ProxyFunction;
 import com.hakan.spinjection.executor.SpigotExecutor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ConfigExecutor is an executor class
  * that is used to execute ConfigValue methods.
+ * <p>
+ * Every method of the config interface is resolved
+ * to a call once, so the proxy only looks up the
+ * call of the method and runs it.
  */
 public class ConfigExecutor implements SpigotExecutor {
 
@@ -24,6 +33,7 @@ public class ConfigExecutor implements SpigotExecutor {
     private final Object instance;
     private final Class<?> clazz;
     private final ConfigFile annotation;
+    private final Map<Method, ProxyFunction> calls;
 
     /**
      * Constructor of {@link ConfigExecutor}.
@@ -33,6 +43,9 @@ public class ConfigExecutor implements SpigotExecutor {
     public ConfigExecutor(@Nonnull Class<?> clazz) {
         this.clazz = clazz;
         this.annotation = clazz.getAnnotation(ConfigFile.class);
+        this.calls = new ConcurrentHashMap<>();
+        for (Method method : clazz.getMethods())
+            this.calls.put(method, this.compile(method));
         this.instance = ConfigUtils.createProxy(this.clazz, this::preCall);
     }
 
@@ -64,7 +77,8 @@ public class ConfigExecutor implements SpigotExecutor {
      * Creates config file if not exists
      * and creates container from the config file.
      * <p>
-     * Then it starts the config reload and save scheduler.
+     * Then it starts the config reload and save scheduler
+     * and the write-behind of the config file.
      *
      * @param bootstrap injector
      * @param instance  instance
@@ -78,10 +92,11 @@ public class ConfigExecutor implements SpigotExecutor {
                 this.clazz
         );
 
-        this.container = ContainerFactory.of(instance, this.annotation);
+        this.container = ContainerFactory.of(bootstrap.getPlugin(), instance, this.annotation);
 
         new ConfigReloadScheduler(bootstrap.getPlugin(), this.container, this.annotation).start();
         new ConfigSaveScheduler(bootstrap.getPlugin(), this.container, this.annotation).start();
+        new ConfigWriteBehind(bootstrap.getPlugin(), this.container, this.annotation).start();
     }
 
     /**
@@ -94,25 +109,10 @@ public class ConfigExecutor implements SpigotExecutor {
      */
     public @Nullable Object preCall(@Nonnull Method method,
                                     @Nonnull Object[] args) {
-        if (method.getName().equals("toString"))
-            return this.clazz.getName() + "@" + Integer.toHexString(this.hashCode());
-        if (method.getName().equals("hashCode"))
-            return this.hashCode();
-
-        if (method.getName().equals("save"))
-            return this.container.save();
-        if (method.getName().equals("reload"))
-            return this.container.reload();
-        if (method.getName().equals("get") && args.length == 1)
-            return this.container.get(args[0].toString());
-        if (method.getName().equals("get") && args.length == 2)
-            return this.container.get(args[0].toString(), (Class<?>) args[1]);
-        if (method.getName().equals("set") && args.length == 2)
-            return this.container.set(args[0].toString(), args[1]);
-        if (method.getName().equals("set") && args.length == 3)
-            return this.container.set(args[0].toString(), args[1], (boolean) args[2]);
-
-        return this.postCall(method, args);
+        ProxyFunction call = this.calls.get(method);
+        if (call == null)
+            call = this.calls.computeIfAbsent(method, this::compile);
+        return call.apply(method, args);
     }
 
     /**
@@ -130,6 +130,48 @@ public class ConfigExecutor implements SpigotExecutor {
         if (method.getParameterCount() != 0)
             throw new RuntimeException("parameter count must be 0!");
 
-        return this.container.get(method, method.getAnnotation(ConfigValue.class));
+        return this.container.getValue(method, method.getAnnotation(ConfigValue.class));
+    }
+
+
+
+    /**
+     * Resolves the call of the method. Errors of
+     * the method are thrown when it is called.
+     *
+     * @param method method
+     * @return call of the method
+     */
+    private @Nonnull ProxyFunction compile(@Nonnull Method method) {
+        String name = method.getName();
+        int count = method.getParameterCount();
+
+        if (name.equals("toString"))
+            return (m, args) -> this.clazz.getName() + "@" + Integer.toHexString(this.hashCode());
+        if (name.equals("hashCode"))
+            return (m, args) -> this.hashCode();
+
+        if (name.equals("save"))
+            return (m, args) -> this.container.save();
+        if (name.equals("reload"))
+            return (m, args) -> this.container.reload();
+        if (name.equals("getLoadTime") && count == 0 && !method.isAnnotationPresent(ConfigValue.class))
+            return (m, args) -> this.container.getLoadTime();
+        if (name.equals("subscribe") && count == 2 && !method.isAnnotationPresent(ConfigValue.class))
+            return (m, args) -> this.container.subscribe(args[0].toString(), (ConfigListener) args[1]);
+        if (name.equals("get") && count == 1)
+            return (m, args) -> this.container.get(args[0].toString());
+        if (name.equals("get") && count == 2)
+            return (m, args) -> this.container.get(args[0].toString(), (Class<?>) args[1]);
+        if (name.equals("set") && count == 2)
+            return (m, args) -> this.container.set(args[0].toString(), args[1]);
+        if (name.equals("set") && count == 3)
+            return (m, args) -> this.container.set(args[0].toString(), args[1], (boolean) args[2]);
+
+        ConfigValue annotation = method.getAnnotation(ConfigValue.class);
+        if (annotation == null || count != 0)
+            return this::postCall;
+
+        return (m, args) -> this.container.getValue(m, annotation);
     }
 }
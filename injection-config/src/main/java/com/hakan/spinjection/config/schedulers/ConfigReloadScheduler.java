@@ -3,20 +3,30 @@ package com.hakan.spinjection.config.schedulers;
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.ReloadTimer;
 import com.hakan.spinjection.config.container.Container;
+import com.hakan.spinjection.metrics.SchedulerMetrics;
+import com.hakan.spinjection.metrics.TimerMetrics;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ConfigReloadScheduler is a scheduler
  * for reloading the config file automatically.
+ * <p>
+ * The config file is only reloaded if it is
+ * changed. If the watch mode is enabled, the
+ * config file is reloaded by {@link ConfigWatcher}
+ * instead of a timer.
  */
 public class ConfigReloadScheduler extends BukkitRunnable {
 
     private final Plugin plugin;
     private final Container container;
     private final ReloadTimer reloadTimer;
+    private final TimerMetrics metrics;
+    private long period;
 
     /**
      * Constructor of {@link ConfigReloadScheduler}
@@ -31,6 +41,17 @@ public class ConfigReloadScheduler extends BukkitRunnable {
         this.plugin = plugin;
         this.container = container;
         this.reloadTimer = annotation.reloadTimer();
+        this.metrics = SchedulerMetrics.register("config:" + container.getPath() + "#reload");
+    }
+
+    /**
+     * Gets the lateness and duration
+     * metrics of the scheduler.
+     *
+     * @return timer metrics
+     */
+    public @Nonnull TimerMetrics getMetrics() {
+        return this.metrics;
     }
 
     /**
@@ -40,8 +61,16 @@ public class ConfigReloadScheduler extends BukkitRunnable {
         if (!this.reloadTimer.enabled())
             return;
 
+        if (this.reloadTimer.watch()) {
+            ConfigWatcher.register(this.plugin, this.container, this.reloadTimer.async());
+            return;
+        }
+
         long delay = this.reloadTimer.timeUnit().toMillis(this.reloadTimer.delay()) / 50L;
         long period = this.reloadTimer.timeUnit().toMillis(this.reloadTimer.period()) / 50L;
+        this.period = TimeUnit.MILLISECONDS.toNanos(period * 50L);
+        this.metrics.plan(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay * 50L));
+
         boolean async = this.reloadTimer.async();
 
         if (period == 0 && async) {
@@ -56,10 +85,13 @@ public class ConfigReloadScheduler extends BukkitRunnable {
     }
 
     /**
-     * Reloads the config file.
+     * Reloads the config file if it is changed.
      */
     @Override
     public void run() {
-        this.container.reload();
+        long planned = this.metrics.fire(System.nanoTime(), this.period);
+        long start = System.nanoTime();
+        this.container.reloadIfChanged();
+        this.metrics.record(planned, start, System.nanoTime());
     }
 }
@@ -3,10 +3,13 @@ package com.hakan.spinjection.config.schedulers;
 import com.hakan.spinjection.config.annotations.ConfigFile;
 import com.hakan.spinjection.config.annotations.SaveTimer;
 import com.hakan.spinjection.config.container.Container;
+import com.hakan.spinjection.metrics.SchedulerMetrics;
+import com.hakan.spinjection.metrics.TimerMetrics;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ConfigSaveScheduler is a scheduler
@@ -17,6 +20,8 @@ public class ConfigSaveScheduler extends BukkitRunnable {
     private final Plugin plugin;
     private final Container container;
     private final SaveTimer saveTimer;
+    private final TimerMetrics metrics;
+    private long period;
 
     /**
      * Constructor of {@link ConfigSaveScheduler}
@@ -31,6 +36,17 @@ public class ConfigSaveScheduler extends BukkitRunnable {
         this.plugin = plugin;
         this.container = container;
         this.saveTimer = annotation.saveTimer();
+        this.metrics = SchedulerMetrics.register("config:" + container.getPath() + "#save");
+    }
+
+    /**
+     * Gets the lateness and duration
+     * metrics of the scheduler.
+     *
+     * @return timer metrics
+     */
+    public @Nonnull TimerMetrics getMetrics() {
+        return this.metrics;
     }
 
     /**
@@ -42,6 +58,9 @@ public class ConfigSaveScheduler extends BukkitRunnable {
 
         long delay = this.saveTimer.timeUnit().toMillis(this.saveTimer.delay()) / 50L;
         long period = this.saveTimer.timeUnit().toMillis(this.saveTimer.period()) / 50L;
+        this.period = TimeUnit.MILLISECONDS.toNanos(period * 50L);
+        this.metrics.plan(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay * 50L));
+
         boolean async = this.saveTimer.async();
 
         if (period == 0 && async) {
@@ -60,6 +79,9 @@ public class ConfigSaveScheduler extends BukkitRunnable {
      */
     @Override
     public void run() {
+        long planned = this.metrics.fire(System.nanoTime(), this.period);
+        long start = System.nanoTime();
         this.container.save();
+        this.metrics.record(planned, start, System.nanoTime());
     }
 }
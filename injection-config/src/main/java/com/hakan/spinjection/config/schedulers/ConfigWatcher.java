@@ -0,0 +1,289 @@
+package com.hakan.spinjection.config.schedulers;
+
+import com.hakan.spinjection.config.container.Container;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * ConfigWatcher reloads the config files when
+ * they are changed. All config files are watched
+ * by a single {@link WatchService} thread.
+ * <p>
+ * Events of a file are debounced, so editors
+ * which write a file twice cause one reload.
+ * Files are only reloaded if their fingerprint
+ * is changed, so saves of the containers do
+ * not cause reloads. Files whose folder can't
+ * be watched are polled by their fingerprint.
+ */
+public class ConfigWatcher implements Runnable {
+
+    private static final long DEBOUNCE = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long POLL_PERIOD = TimeUnit.SECONDS.toNanos(2);
+    private static ConfigWatcher instance;
+
+    /**
+     * Registers the container to be reloaded
+     * when its config file is changed. The
+     * watcher thread is started on the first
+     * registration.
+     *
+     * @param plugin    plugin
+     * @param container container
+     * @param async     reload on the watcher thread
+     *                  instead of the server thread
+     */
+    public static synchronized void register(@Nonnull Plugin plugin,
+                                             @Nonnull Container container,
+                                             boolean async) {
+        if (instance == null) {
+            instance = new ConfigWatcher();
+
+            Thread thread = new Thread(instance, "spinjection-config-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        instance.add(new Entry(plugin, container, async));
+    }
+
+
+
+    private final WatchService service;
+    private final Map<Path, List<Entry>> entries;
+    private final Set<Path> directories;
+    private final Set<Path> polled;
+    private final Map<Path, Long> pending;
+    private long nextPoll;
+
+    /**
+     * Constructor of ConfigWatcher.
+     */
+    private ConfigWatcher() {
+        this.service = createService();
+        this.entries = new ConcurrentHashMap<>();
+        this.directories = ConcurrentHashMap.newKeySet();
+        this.polled = ConcurrentHashMap.newKeySet();
+        this.pending = new HashMap<>();
+        this.nextPoll = System.nanoTime();
+    }
+
+    /**
+     * Waits the events of the watched folders
+     * and checks the changed files after their
+     * debounce time.
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                long wait = this.checkPending(System.nanoTime());
+
+                WatchKey key = (this.service == null) ? null : this.service.poll(wait, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    if (this.service == null)
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    continue;
+                }
+
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                        this.markDirectory(directory);
+                    else
+                        this.mark(directory.resolve((Path) event.context()));
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+
+    /**
+     * Adds the entry and watches the
+     * folder of its config file.
+     *
+     * @param entry entry
+     */
+    private void add(@Nonnull Entry entry) {
+        Path file = Paths.get(entry.container.getPath()).toAbsolutePath().normalize();
+        this.entries.computeIfAbsent(file, path -> new CopyOnWriteArrayList<>()).add(entry);
+
+        Path directory = file.getParent();
+        if (this.service != null && !this.directories.contains(directory)) {
+            try {
+                directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                this.directories.add(directory);
+            } catch (IOException | UnsupportedOperationException e) {
+                entry.plugin.getLogger().warning("config folder " + directory + " can't be watched, it will be polled");
+            }
+        }
+
+        if (!this.directories.contains(directory))
+            this.polled.add(file);
+    }
+
+    /**
+     * Checks the files whose debounce time
+     * is passed and the polled files if
+     * their poll time is come.
+     *
+     * @param now current time
+     * @return time to wait until the next check
+     */
+    private long checkPending(long now) {
+        if (now - this.nextPoll >= 0) {
+            for (Path file : this.polled)
+                this.pending.putIfAbsent(file, now);
+            this.nextPoll = now + POLL_PERIOD;
+        }
+
+        long wait = this.nextPoll - now;
+
+        Iterator<Map.Entry<Path, Long>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> pending = iterator.next();
+            long due = pending.getValue() - now;
+
+            if (due <= 0) {
+                iterator.remove();
+                this.check(pending.getKey());
+            } else {
+                wait = Math.min(wait, due);
+            }
+        }
+
+        return Math.max(1, wait);
+    }
+
+    /**
+     * Marks the file as changed, its check
+     * is delayed by the debounce time.
+     *
+     * @param file file
+     */
+    private void mark(@Nonnull Path file) {
+        if (this.entries.containsKey(file))
+            this.pending.put(file, System.nanoTime() + DEBOUNCE);
+    }
+
+    /**
+     * Marks all files in the folder as
+     * changed, since its events are lost.
+     *
+     * @param directory folder
+     */
+    private void markDirectory(@Nonnull Path directory) {
+        for (Path file : this.entries.keySet()) {
+            if (directory.equals(file.getParent()))
+                this.mark(file);
+        }
+    }
+
+    /**
+     * Reloads the containers of the file
+     * if the file is really changed. Entries
+     * of disabled plugins are removed.
+     * <p>
+     * Errors of an entry are logged, so they
+     * don't stop the watcher thread.
+     *
+     * @param file file
+     */
+    private void check(@Nonnull Path file) {
+        List<Entry> entries = this.entries.getOrDefault(file, Collections.emptyList());
+
+        for (Entry entry : entries) {
+            try {
+                if (!entry.plugin.isEnabled())
+                    entries.remove(entry);
+                else if (entry.async)
+                    entry.reload();
+                else if (entry.container.isChanged())
+                    Bukkit.getScheduler().runTask(entry.plugin, entry::reload);
+            } catch (Exception e) {
+                entry.plugin.getLogger().log(Level.WARNING, "config file " + entry.container.getPath() + " couldn't be checked", e);
+            }
+        }
+    }
+
+    /**
+     * Creates the watch service of the
+     * default file system if it is supported.
+     *
+     * @return watch service, null if it is not supported
+     */
+    private static WatchService createService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+
+
+    /**
+     * Entry of a container which
+     * is watched by the watcher.
+     */
+    private static final class Entry {
+
+        private final Plugin plugin;
+        private final Container container;
+        private final boolean async;
+
+        /**
+         * Constructor of Entry.
+         *
+         * @param plugin    plugin
+         * @param container container
+         * @param async     async status
+         */
+        private Entry(@Nonnull Plugin plugin,
+                      @Nonnull Container container,
+                      boolean async) {
+            this.plugin = plugin;
+            this.container = container;
+            this.async = async;
+        }
+
+        /**
+         * Reloads the container if its file is
+         * changed. Errors are logged, so a file
+         * which is written partially does not
+         * stop the watcher.
+         */
+        private void reload() {
+            try {
+                this.container.reloadIfChanged();
+            } catch (Exception e) {
+                this.plugin.getLogger().log(Level.WARNING, "config file " + this.container.getPath() + " couldn't be reloaded", e);
+            }
+        }
+    }
+}
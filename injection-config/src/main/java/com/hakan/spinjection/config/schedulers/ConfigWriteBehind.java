@@ -0,0 +1,152 @@
+package com.hakan.spinjection.config.schedulers;
+
+import com.hakan.spinjection.config.annotations.ConfigFile;
+import com.hakan.spinjection.config.annotations.WriteBehind;
+import com.hakan.spinjection.config.container.Container;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConfigWriteBehind is a scheduler for saving
+ * the changes of the config file behind the
+ * set calls.
+ * <p>
+ * The first change marks the config file as
+ * dirty and schedules an async save after the
+ * delay. The changes until the save are saved
+ * together. The config file is also saved when
+ * the plugin is disabled.
+ */
+public class ConfigWriteBehind implements Listener {
+
+    private final Plugin plugin;
+    private final Container container;
+    private final WriteBehind writeBehind;
+    private final AtomicBoolean dirty;
+    private final AtomicLong requests;
+    private final AtomicLong writes;
+
+    /**
+     * Constructor of {@link ConfigWriteBehind}
+     *
+     * @param plugin     plugin
+     * @param container  container
+     * @param annotation annotation
+     */
+    public ConfigWriteBehind(@Nonnull Plugin plugin,
+                             @Nonnull Container container,
+                             @Nonnull ConfigFile annotation) {
+        this.plugin = plugin;
+        this.container = container;
+        this.writeBehind = annotation.writeBehind();
+        this.dirty = new AtomicBoolean();
+        this.requests = new AtomicLong();
+        this.writes = new AtomicLong();
+    }
+
+    /**
+     * Gets the count of the
+     * saves which are requested.
+     *
+     * @return save request count
+     */
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    /**
+     * Gets the count of the saves
+     * which are written to the file.
+     *
+     * @return write count
+     */
+    public long getWrites() {
+        return this.writes.get();
+    }
+
+    /**
+     * Gets the count of the saves which
+     * are avoided by coalescing them.
+     *
+     * @return avoided write count
+     */
+    public long getAvoidedWrites() {
+        return Math.max(0, this.getRequests() - this.getWrites() - (this.isDirty() ? 1 : 0));
+    }
+
+    /**
+     * Checks if the config file
+     * has changes which are not saved.
+     *
+     * @return true if dirty
+     */
+    public boolean isDirty() {
+        return this.dirty.get();
+    }
+
+    /**
+     * Starts the write-behind of the container
+     * and listens the disable of the plugin.
+     */
+    public void start() {
+        if (!this.writeBehind.enabled())
+            return;
+
+        this.container.setWriteBehind(this);
+
+        Bukkit.getPluginManager().registerEvent(
+                PluginDisableEvent.class,
+                this,
+                EventPriority.MONITOR,
+                (listener, event) -> {
+                    if (((PluginDisableEvent) event).getPlugin() == this.plugin)
+                        this.flush();
+                },
+                this.plugin,
+                false
+        );
+    }
+
+    /**
+     * Marks the config file as dirty. If it was
+     * clean, a save is scheduled after the delay.
+     * If the plugin is disabled, it is saved now.
+     */
+    public void markDirty() {
+        this.requests.incrementAndGet();
+        if (!this.dirty.compareAndSet(false, true))
+            return;
+
+        if (!this.plugin.isEnabled()) {
+            this.flush();
+            return;
+        }
+
+        long delay = Math.max(1, this.writeBehind.timeUnit().toMillis(this.writeBehind.delay()) / 50L);
+        Bukkit.getScheduler().runTaskLaterAsynchronously(this.plugin, this::flush, delay);
+    }
+
+    /**
+     * Saves the config file if it is dirty.
+     * Changes which are made while saving
+     * mark it as dirty again.
+     * <p>
+     * Flushes are serialized, so a flush which
+     * is called while another one is saving
+     * waits until the save is finished.
+     */
+    public synchronized void flush() {
+        if (!this.dirty.compareAndSet(true, false))
+            return;
+
+        this.writes.incrementAndGet();
+        this.container.save();
+    }
+}
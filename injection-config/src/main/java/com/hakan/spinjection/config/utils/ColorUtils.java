@@ -4,16 +4,26 @@ import org.bukkit.ChatColor;
 
 import javax.annotation.Nonnull;
 import java.awt.Color;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * ColorUtil class to convert color
  * codes in messages.
+ * <p>
+ * Messages are translated in a single scan and
+ * the results are kept in a bounded cache, so
+ * translating the same message again is a lookup.
  */
 public class ColorUtils {
 
-    private static final Pattern HEX_PATTERN = Pattern.compile("#[a-fA-F\\d]{6}");
+    private static final String CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final String HEX_DIGITS = "0123456789AaBbCcDdEeFf";
+    private static final int CACHE_SIZE = 1024;
+    private static final int MAX_CACHED_LENGTH = 1024;
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
     private static final Pattern COLOR_PATTERN = Pattern.compile("(?<color>(([§&][A-Fa-f\\d|rR])|(#[A-Fa-f\\d]{6})))");
     private static final Pattern FORMAT_PATTERN = Pattern.compile("(?<format>[§&][k-oK-OrR])");
 
@@ -24,16 +34,17 @@ public class ColorUtils {
      * @return colored message
      */
     public static @Nonnull String colored(@Nonnull String message) {
-        if (ProtocolVersion.getCurrentVersion().isNewerOrEqual(ProtocolVersion.v1_16_R1)) {
-            Matcher matcher = HEX_PATTERN.matcher(message);
+        if (message.length() > MAX_CACHED_LENGTH)
+            return translate(message);
 
-            while (matcher.find()) {
-                String color = message.substring(matcher.start(), matcher.end());
-                message = message.replace(color, String.valueOf(net.md_5.bungee.api.ChatColor.of(color)));
-                matcher = HEX_PATTERN.matcher(message);
-            }
+        String colored = CACHE.get(message);
+        if (colored == null) {
+            colored = translate(message);
+            if (CACHE.size() >= CACHE_SIZE)
+                CACHE.clear();
+            CACHE.put(message, colored);
         }
-        return ChatColor.translateAlternateColorCodes('&', message);
+        return colored;
     }
 
     /**
@@ -115,4 +126,58 @@ public class ColorUtils {
 
         return lastColor + format;
     }
-}
\ No newline at end of file
+
+
+
+    /**
+     * Translates the legacy color codes with '&'
+     * and the hex colors such as #ff0000 in a
+     * single scan of the message. Hex colors are
+     * only translated on 1.16 and newer versions.
+     *
+     * @param message message to translate
+     * @return translated message
+     */
+    private static @Nonnull String translate(@Nonnull String message) {
+        boolean hex = ProtocolVersion.getCurrentVersion().isNewerOrEqual(ProtocolVersion.v1_16_R1);
+
+        int length = message.length();
+        StringBuilder builder = new StringBuilder(length + 16);
+
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+
+            if (c == '&' && i + 1 < length && CODES.indexOf(message.charAt(i + 1)) > -1) {
+                builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(message.charAt(++i)));
+            } else if (c == '#' && hex && isHex(message, i + 1)) {
+                builder.append(ChatColor.COLOR_CHAR).append('x');
+                for (int j = 1; j <= 6; j++)
+                    builder.append(ChatColor.COLOR_CHAR).append(message.charAt(i + j));
+                i += 6;
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Checks if there are 6 hex digits
+     * at the given index of the message.
+     *
+     * @param message message
+     * @param index   start index
+     * @return true if there are
+     */
+    private static boolean isHex(@Nonnull String message, int index) {
+        if (index + 6 > message.length())
+            return false;
+
+        for (int i = index; i < index + 6; i++) {
+            if (HEX_DIGITS.indexOf(message.charAt(i)) < 0)
+                return false;
+        }
+        return true;
+    }
+}
@@ -1,19 +1,35 @@
 package com.hakan.spinjection.config.utils;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.hakan.spinjection.utils.ReflectionUtils;
 import lombok.SneakyThrows;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,28 +38,33 @@ import java.util.Map;
  */
 public class JsonUtils {
 
-    private static final Gson GSON = new Gson();
+    private static final Gson WRITER = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
     private static final JsonParser PARSER = new JsonParser();
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     /**
-     * Gets JsonObject from file.
+     * Gets JsonObject from file. The file is
+     * parsed as a stream directly into the tree,
+     * and an empty file is an empty object.
      *
      * @param filePath path to file
      * @return JsonObject from file
      */
     @SneakyThrows
     public static @Nonnull JsonObject loadFromFile(@Nonnull String filePath) {
-        try (FileReader reader = new FileReader(filePath)) {
-            JsonReader jsonReader = new JsonReader(reader);
-            Map<?, ?> objectMap = GSON.fromJson(jsonReader, Map.class);
-            return PARSER.parse(GSON.toJson(objectMap)).getAsJsonObject();
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            JsonElement element = PARSER.parse(reader);
+            return element.isJsonNull() ? new JsonObject() : element.getAsJsonObject();
         }
     }
 
     /**
-     * Gets JsonObject from file.
+     * Saves JsonObject to file. The json is indented
+     * while it is written to a temporary file, then
+     * the temporary file is moved over the file, so
+     * a crash while saving never truncates the file.
      *
-     * @param object     JsonObject to get
+     * @param object     JsonObject to save
      * @param filePath   path to file
      * @param beautified beautified json
      */
@@ -51,10 +72,20 @@ public class JsonUtils {
     public static void saveToFile(@Nonnull JsonObject object,
                                   @Nonnull String filePath,
                                   boolean beautified) {
-        try (FileWriter fileWriter = new FileWriter(filePath)) {
-            if (!beautified) fileWriter.write(object.toString());
-            else fileWriter.write(JsonUtils.beautify(object.toString()));
+        Path path = Paths.get(filePath).toAbsolutePath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.setIndent(beautified ? "  " : "");
+
+            WRITER.toJson(object, jsonWriter);
+            jsonWriter.flush();
+            channel.force(true);
         }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     /**
@@ -108,6 +139,106 @@ public class JsonUtils {
         jsonObject.add(keys[keys.length - 1], element);
     }
 
+    /**
+     * Creates a copy of the parent json object in
+     * which the element is set. Only the objects on
+     * the path of the key are copied, the rest of
+     * the tree is shared, and the parent is not changed.
+     *
+     * @param parent  parent json object
+     * @param key     key to set
+     * @param element element to set
+     * @return changed copy of the parent
+     */
+    public static @Nonnull JsonObject withValue(@Nonnull JsonObject parent,
+                                                @Nonnull String key,
+                                                @Nonnull JsonElement element) {
+        return JsonUtils.withValue(parent, key.split("\\."), 0, element);
+    }
+
+    /**
+     * Collects the leaf elements of the json object
+     * by their full keys. Objects are not leaves,
+     * but empty objects are.
+     *
+     * @param object json object
+     * @param prefix key prefix of the object
+     * @param leaves leaf elements to collect in
+     */
+    public static void collectLeaves(@Nonnull JsonObject object,
+                                     @Nonnull String prefix,
+                                     @Nonnull Map<String, Object> leaves) {
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            String key = prefix + entry.getKey();
+            JsonElement element = entry.getValue();
+
+            if (element.isJsonObject() && element.getAsJsonObject().entrySet().size() > 0)
+                JsonUtils.collectLeaves(element.getAsJsonObject(), key + ".", leaves);
+            else
+                leaves.put(key, element);
+        }
+    }
+
+    /**
+     * Converts the json element to a plain tree of
+     * {@link Map}, {@link List}, {@link String},
+     * {@link Number} and {@link Boolean} values.
+     *
+     * @param element json element
+     * @return plain value
+     */
+    public static @Nullable Object toPlain(@Nonnull JsonElement element) {
+        if (element.isJsonObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet())
+                map.put(entry.getKey(), JsonUtils.toPlain(entry.getValue()));
+            return map;
+        } else if (element.isJsonArray()) {
+            List<Object> list = new ArrayList<>();
+            for (JsonElement child : element.getAsJsonArray())
+                list.add(JsonUtils.toPlain(child));
+            return list;
+        } else if (element.isJsonNull()) {
+            return null;
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean())
+            return primitive.getAsBoolean();
+        else if (primitive.isNumber())
+            return primitive.getAsNumber();
+        return primitive.getAsString();
+    }
+
+    /**
+     * Converts the plain tree which is created
+     * by {@link #toPlain(JsonElement)} back to
+     * a json element.
+     *
+     * @param value plain value
+     * @return json element
+     */
+    public static @Nonnull JsonElement fromPlain(@Nullable Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        } else if (value instanceof Map) {
+            JsonObject object = new JsonObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                object.add(entry.getKey().toString(), JsonUtils.fromPlain(entry.getValue()));
+            return object;
+        } else if (value instanceof List) {
+            JsonArray array = new JsonArray();
+            for (Object child : (List<?>) value)
+                array.add(JsonUtils.fromPlain(child));
+            return array;
+        } else if (value instanceof Boolean) {
+            return new JsonPrimitive((Boolean) value);
+        } else if (value instanceof Number) {
+            return new JsonPrimitive((Number) value);
+        }
+        return new JsonPrimitive(value.toString());
+    }
+
     /**
      * Beautifies the given json string.
      *
@@ -146,6 +277,34 @@ public class JsonUtils {
 
 
 
+    /**
+     * Copies the object and sets the element
+     * or the changed copy of the child object
+     * on the path of the keys.
+     *
+     * @param parent  parent json object
+     * @param keys    keys of the path
+     * @param index   index of the key of the parent
+     * @param element element to set
+     * @return changed copy of the parent
+     */
+    private static @Nonnull JsonObject withValue(@Nonnull JsonObject parent,
+                                                 @Nonnull String[] keys,
+                                                 int index,
+                                                 @Nonnull JsonElement element) {
+        JsonObject copy = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : parent.entrySet())
+            copy.add(entry.getKey(), entry.getValue());
+
+        if (index == keys.length - 1) {
+            copy.add(keys[index], element);
+        } else {
+            JsonObject child = parent.getAsJsonObject(keys[index]);
+            copy.add(keys[index], JsonUtils.withValue((child == null) ? new JsonObject() : child, keys, index + 1, element));
+        }
+        return copy;
+    }
+
     /**
      * New line with tab count.
      *
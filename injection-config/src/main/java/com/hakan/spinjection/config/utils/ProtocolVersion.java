@@ -35,13 +35,30 @@ public enum ProtocolVersion {
     ;
 
 
+    private static ProtocolVersion current;
+
     /**
-     * Gets the current protocol version.
+     * Gets the current protocol version. It is
+     * resolved once and cached after that.
      *
      * @return The current protocol version.
      */
     @Nonnull
     public static ProtocolVersion getCurrentVersion() {
+        ProtocolVersion current = ProtocolVersion.current;
+        if (current == null)
+            ProtocolVersion.current = current = ProtocolVersion.findCurrentVersion();
+        return current;
+    }
+
+    /**
+     * Finds the current protocol version
+     * from the version of the server.
+     *
+     * @return The current protocol version.
+     */
+    @Nonnull
+    private static ProtocolVersion findCurrentVersion() {
         if (Bukkit.getBukkitVersion().contains("1.19.1"))
             return v1_19_1_R1;
         else if (Bukkit.getBukkitVersion().contains("1.19.2"))
@@ -0,0 +1,171 @@
+package com.hakan.spinjection.metrics;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram is a lock-free histogram of
+ * durations with logarithmic buckets.
+ * <p>
+ * Values are recorded as microseconds. Values
+ * under 16 microseconds have their own buckets,
+ * bigger values are grouped in 8 buckets per
+ * power of two, so percentiles have at most
+ * 12.5% error.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 16;
+    private static final int BUCKETS = LINEAR_LIMIT + (64 - 4) * SUB_BUCKETS;
+
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    /**
+     * Constructor of Histogram.
+     */
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records the value.
+     *
+     * @param value    value
+     * @param timeUnit time unit
+     */
+    public void record(long value, @Nonnull TimeUnit timeUnit) {
+        long micros = Math.max(0, timeUnit.toMicros(value));
+
+        this.buckets.incrementAndGet(indexOf(micros));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(micros);
+
+        long current;
+        while (micros > (current = this.max.get()) && !this.max.compareAndSet(current, micros)) {
+            // retry until the max is updated
+        }
+    }
+
+    /**
+     * Gets the count of the
+     * recorded values.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Gets the max recorded value.
+     *
+     * @param timeUnit time unit
+     * @return max value
+     */
+    public long getMax(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.max.get(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @param timeUnit time unit
+     * @return mean value
+     */
+    public long getMean(@Nonnull TimeUnit timeUnit) {
+        long count = this.count.get();
+        return (count == 0) ? 0 : timeUnit.convert(this.sum.get() / count, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Gets the value at the percentile.
+     * It is the upper bound of the bucket
+     * which the percentile falls into.
+     *
+     * @param percentile percentile between 0 and 100
+     * @param timeUnit   time unit
+     * @return value at the percentile
+     */
+    public long getPercentile(double percentile, @Nonnull TimeUnit timeUnit) {
+        long count = this.count.get();
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank)
+                return timeUnit.convert(Math.min(upperBoundOf(i), this.max.get()), TimeUnit.MICROSECONDS);
+        }
+        return timeUnit.convert(this.max.get(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Clears the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            this.buckets.set(i, 0);
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nonnull String toString() {
+        return "count=" + this.getCount() +
+                " mean=" + this.getMean(TimeUnit.MICROSECONDS) + "us" +
+                " p50=" + this.getPercentile(50, TimeUnit.MICROSECONDS) + "us" +
+                " p99=" + this.getPercentile(99, TimeUnit.MICROSECONDS) + "us" +
+                " max=" + this.getMax(TimeUnit.MICROSECONDS) + "us";
+    }
+
+
+
+    /**
+     * Gets the bucket index of the value.
+     *
+     * @param micros value as microseconds
+     * @return bucket index
+     */
+    private static int indexOf(long micros) {
+        if (micros < LINEAR_LIMIT)
+            return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the biggest value
+     * of the bucket.
+     *
+     * @param index bucket index
+     * @return upper bound as microseconds
+     */
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT)
+            return index;
+
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
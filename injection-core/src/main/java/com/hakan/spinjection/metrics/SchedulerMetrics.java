@@ -0,0 +1,49 @@
+package com.hakan.spinjection.metrics;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SchedulerMetrics class to register
+ * and list the metrics of the timers
+ * of all modules.
+ */
+public class SchedulerMetrics {
+
+    private static final Map<String, TimerMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Registers metrics for the timer. If it
+     * is already registered, it returns the
+     * registered one.
+     *
+     * @param name timer name
+     * @return timer metrics
+     */
+    public static @Nonnull TimerMetrics register(@Nonnull String name) {
+        return metrics.computeIfAbsent(name, TimerMetrics::new);
+    }
+
+    /**
+     * Finds the metrics of the timer.
+     *
+     * @param name timer name
+     * @return timer metrics
+     */
+    public static @Nonnull Optional<TimerMetrics> findByName(@Nonnull String name) {
+        return Optional.ofNullable(metrics.get(name));
+    }
+
+    /**
+     * Gets the metrics of all timers.
+     *
+     * @return timer metrics
+     */
+    public static @Nonnull Collection<TimerMetrics> getAll() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+}
@@ -0,0 +1,193 @@
+package com.hakan.spinjection.metrics;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TimerMetrics keeps the start lateness and
+ * execution duration histograms of a timer,
+ * the count of its missed periods and the
+ * count of its firings which are skipped.
+ * <p>
+ * It also follows the planned fire times of
+ * the timer as a grid which starts from the
+ * first fire time and steps by the period.
+ * When a firing is later than a whole period,
+ * the passed grid points are counted as missed.
+ */
+public class TimerMetrics {
+
+    private final String name;
+    private final Histogram lateness;
+    private final Histogram duration;
+    private final AtomicLong missed;
+    private final AtomicLong skipped;
+    private long nextFire;
+
+    /**
+     * Constructor of TimerMetrics.
+     *
+     * @param name timer name
+     */
+    public TimerMetrics(@Nonnull String name) {
+        this.name = name;
+        this.lateness = new Histogram();
+        this.duration = new Histogram();
+        this.missed = new AtomicLong();
+        this.skipped = new AtomicLong();
+        this.nextFire = System.nanoTime();
+    }
+
+    /**
+     * Gets the name of the timer.
+     *
+     * @return timer name
+     */
+    public @Nonnull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the start lateness histogram.
+     *
+     * @return lateness histogram
+     */
+    public @Nonnull Histogram getLateness() {
+        return this.lateness;
+    }
+
+    /**
+     * Gets the execution duration histogram.
+     *
+     * @return duration histogram
+     */
+    public @Nonnull Histogram getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * Gets the count of the periods
+     * in which the timer didn't start.
+     *
+     * @return missed period count
+     */
+    public long getMissed() {
+        return this.missed.get();
+    }
+
+    /**
+     * Gets the count of the firings which
+     * are not run, for example since the
+     * previous run was still in progress.
+     *
+     * @return skipped firing count
+     */
+    public long getSkipped() {
+        return this.skipped.get();
+    }
+
+    /**
+     * Gets the next planned fire time.
+     *
+     * @return next fire time as {@link System#nanoTime()}
+     */
+    public synchronized long getNextFire() {
+        return this.nextFire;
+    }
+
+    /**
+     * Sets the next planned fire time.
+     *
+     * @param fireTime fire time as {@link System#nanoTime()}
+     */
+    public synchronized void plan(long fireTime) {
+        this.nextFire = fireTime;
+    }
+
+    /**
+     * Marks a firing of the timer and
+     * moves the grid to the next fire time.
+     *
+     * @param now    current time as {@link System#nanoTime()}
+     * @param period period as nanoseconds, 0 if it runs once
+     * @return planned fire time of the firing
+     */
+    public synchronized long fire(long now, long period) {
+        long planned = this.nextFire;
+        if (period <= 0)
+            return planned;
+
+        long next = planned + period;
+        if (next <= now) {
+            long passed = (now - next) / period + 1;
+            this.missed.addAndGet(passed);
+            next += passed * period;
+            planned = next - period;
+        }
+
+        this.nextFire = next;
+        return planned;
+    }
+
+    /**
+     * Marks a firing of a fixed-rate timer, which
+     * fires once for every grid point even if it
+     * is late, and moves the grid by a period.
+     * A firing later than a whole period is
+     * counted as missed.
+     *
+     * @param now    current time as {@link System#nanoTime()}
+     * @param period period as nanoseconds
+     * @return planned fire time of the firing
+     */
+    public synchronized long fireAtRate(long now, long period) {
+        long planned = this.nextFire;
+        if (period <= 0)
+            return planned;
+
+        if (now - planned >= period)
+            this.missed.incrementAndGet();
+
+        this.nextFire = planned + period;
+        return planned;
+    }
+
+    /**
+     * Adds missed periods.
+     *
+     * @param count missed period count
+     */
+    public void addMissed(long count) {
+        this.missed.addAndGet(count);
+    }
+
+    /**
+     * Adds skipped firings.
+     *
+     * @param count skipped firing count
+     */
+    public void addSkipped(long count) {
+        this.skipped.addAndGet(count);
+    }
+
+    /**
+     * Records a run of the timer.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     * @param start   start time as {@link System#nanoTime()}
+     * @param end     end time as {@link System#nanoTime()}
+     */
+    public void record(long planned, long start, long end) {
+        this.lateness.record(Math.max(0, start - planned), TimeUnit.NANOSECONDS);
+        this.duration.record(end - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nonnull String toString() {
+        return this.name + " lateness[" + this.lateness + "] duration[" + this.duration + "] missed=" + this.getMissed() + " skipped=" + this.getSkipped();
+    }
+}
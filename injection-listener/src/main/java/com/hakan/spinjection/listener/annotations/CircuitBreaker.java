@@ -0,0 +1,81 @@
+package com.hakan.spinjection.listener.annotations;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker annotation to
+ * define error-rate settings
+ * of an event listener.
+ */
+@Documented
+@Target(ElementType.ANNOTATION_TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CircuitBreaker {
+
+    /**
+     * Circuit breaker status of the
+     * listener. If it is true, the
+     * listener will be disabled for
+     * a while when it fails too often.
+     * <p>
+     * It is disabled by default, so
+     * failures of the listener are
+     * thrown as usual.
+     *
+     * @return circuit breaker status
+     */
+    boolean enabled() default false;
+
+    /**
+     * Failure count in a window
+     * to trip the circuit breaker.
+     *
+     * @return failure threshold
+     */
+    int threshold() default 10;
+
+    /**
+     * Window time that failures
+     * are counted in.
+     *
+     * @return window time
+     */
+    long window() default 10L;
+
+    /**
+     * Backoff time of the listener.
+     * <p>
+     * Tripped listener will be
+     * re-enabled after backoff time.
+     *
+     * @return backoff time
+     */
+    long backoff() default 30L;
+
+    /**
+     * Max duration of one execution.
+     * <p>
+     * Executions that take longer than
+     * max duration are counted as failure.
+     * 0 means there is no limit.
+     *
+     * @return max duration
+     */
+    long maxDuration() default 0L;
+
+    /**
+     * Time unit of the window,
+     * backoff and max duration.
+     * Default is seconds.
+     *
+     * @return time unit
+     */
+    @Nonnull
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
@@ -25,4 +25,12 @@ public @interface EventListener {
      */
     @Nonnull
     EventPriority priority() default EventPriority.NORMAL;
+
+    /**
+     * Circuit breaker settings
+     * for the event listener.
+     *
+     * @return circuit breaker settings
+     */
+    CircuitBreaker breaker() default @CircuitBreaker;
 }
@@ -0,0 +1,55 @@
+package com.hakan.spinjection.listener.annotations;
+
+import com.hakan.spinjection.listener.routing.RouteKey;
+import org.bukkit.event.EventPriority;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * RoutedListener annotation to define
+ * event listener method which is called
+ * only for the keys that are bound to
+ * its route at runtime.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RoutedListener {
+
+    /**
+     * Name of the route.
+     *
+     * @return Name of the route.
+     */
+    @Nonnull
+    String value();
+
+    /**
+     * Key type of the route.
+     *
+     * @return Key type of the route.
+     */
+    @Nonnull
+    RouteKey key() default RouteKey.PLAYER;
+
+    /**
+     * Gets event priority of annotation.
+     *
+     * @return Event priority of annotation.
+     */
+    @Nonnull
+    EventPriority priority() default EventPriority.NORMAL;
+
+    /**
+     * Circuit breaker settings
+     * for the event listener.
+     *
+     * @return circuit breaker settings
+     */
+    CircuitBreaker breaker() default @CircuitBreaker;
+}
@@ -0,0 +1,322 @@
+package com.hakan.spinjection.listener.breaker;
+
+import com.hakan.spinjection.listener.annotations.CircuitBreaker;
+import lombok.SneakyThrows;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * HandlerBreaker is a circuit breaker
+ * of an event listener method. It counts
+ * failures of the listener and disables
+ * it for a backoff time when the failure
+ * count exceeds the threshold in a window.
+ * <p>
+ * Same stack traces are logged only once
+ * and repeated ones are logged as counted
+ * summaries when the window is closed. Slow
+ * executions share one signature, so they
+ * are summarized together.
+ */
+public class HandlerBreaker {
+
+    private final String name;
+    private final Logger logger;
+    private final CircuitBreaker settings;
+    private final long window;
+    private final long backoff;
+    private final long maxDuration;
+    private final Map<String, Integer> repeats;
+
+    private volatile long trippedUntil;
+    private long windowStart;
+    private int failures;
+    private int tripCount;
+    private long slowest;
+
+    /**
+     * Constructor of HandlerBreaker.
+     *
+     * @param logger   logger
+     * @param method   listener method
+     * @param settings circuit breaker settings
+     */
+    public HandlerBreaker(@Nonnull Logger logger,
+                          @Nonnull Method method,
+                          @Nonnull CircuitBreaker settings) {
+        this.logger = logger;
+        this.settings = settings;
+        this.repeats = new LinkedHashMap<>();
+        this.name = method.getDeclaringClass().getName() + "#" + method.getName();
+        this.window = settings.timeUnit().toNanos(settings.window());
+        this.backoff = settings.timeUnit().toNanos(settings.backoff());
+        this.maxDuration = settings.timeUnit().toNanos(settings.maxDuration());
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Gets the name of the listener.
+     *
+     * @return name
+     */
+    public @Nonnull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the circuit breaker settings.
+     *
+     * @return settings
+     */
+    public @Nonnull CircuitBreaker getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Checks if execution times
+     * of the listener are measured.
+     *
+     * @return true if measured
+     */
+    public boolean isMeasured() {
+        return this.maxDuration > 0;
+    }
+
+    /**
+     * Checks if the listener
+     * is currently tripped.
+     *
+     * @return true if tripped
+     */
+    public boolean isTripped() {
+        long until = this.trippedUntil;
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    /**
+     * Gets the remaining backoff
+     * time of the listener.
+     *
+     * @param timeUnit time unit
+     * @return remaining backoff time
+     */
+    public long getRemainingBackoff(@Nonnull TimeUnit timeUnit) {
+        long until = this.trippedUntil;
+        if (until == 0) return 0;
+        return timeUnit.convert(Math.max(0, until - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the failure count
+     * in the current window.
+     *
+     * @return failure count
+     */
+    public synchronized int getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Gets how many times the
+     * listener has been tripped.
+     *
+     * @return trip count
+     */
+    public synchronized int getTripCount() {
+        return this.tripCount;
+    }
+
+
+
+    /**
+     * Checks if the listener is allowed to
+     * run. If backoff time of the tripped
+     * listener is over, it will be re-enabled.
+     *
+     * @return true if allowed
+     */
+    public boolean allows() {
+        long until = this.trippedUntil;
+        if (until == 0)
+            return true;
+        if (System.nanoTime() - until < 0)
+            return false;
+
+        this.reset();
+        return true;
+    }
+
+    /**
+     * Invokes the listener method unless the
+     * listener is tripped. Failures of the method
+     * are recorded instead of being thrown, and
+     * the duration is recorded if the method
+     * doesn't fail and the listener is measured.
+     *
+     * @param method   listener method
+     * @param instance instance of the method
+     * @param event    event
+     */
+    @SneakyThrows
+    public void invoke(@Nonnull Method method,
+                       @Nullable Object instance,
+                       @Nonnull Object event) {
+        if (!this.allows())
+            return;
+
+        boolean measured = this.isMeasured();
+        long start = measured ? System.nanoTime() : 0;
+        try {
+            method.invoke(instance, event);
+            if (measured)
+                this.recordDuration(System.nanoTime() - start);
+        } catch (InvocationTargetException e) {
+            this.recordFailure(e.getCause());
+        }
+    }
+
+    /**
+     * Records the duration of an execution.
+     * If it exceeds the max duration, it
+     * will be counted as failure.
+     *
+     * @param nanos duration as nanoseconds
+     */
+    public synchronized void recordDuration(long nanos) {
+        if (this.maxDuration <= 0 || nanos <= this.maxDuration)
+            return;
+
+        this.recordFailure("slow", null);
+        this.slowest = Math.max(this.slowest, nanos);
+    }
+
+    /**
+     * Records the failure of an execution.
+     *
+     * @param throwable thrown exception
+     */
+    public void recordFailure(@Nonnull Throwable throwable) {
+        this.recordFailure(signatureOf(throwable), throwable);
+    }
+
+    /**
+     * Logs the repeated failures of the window
+     * if the window is over. It is called by a
+     * timer, so summaries are not held until
+     * the next failure.
+     */
+    public synchronized void flushExpired() {
+        long now = System.nanoTime();
+        if (now - this.windowStart < this.window)
+            return;
+
+        this.flushRepeats();
+        this.failures = 0;
+        this.windowStart = now;
+    }
+
+    /**
+     * Logs the repeated failures which
+     * are not logged yet. It is called
+     * when the plugin is disabled.
+     */
+    public synchronized void close() {
+        this.flushRepeats();
+    }
+
+    /**
+     * Re-enables the listener and
+     * clears the failure counter.
+     */
+    public synchronized void reset() {
+        if (this.trippedUntil != 0)
+            this.logger.info("listener " + this.name + " is re-enabled");
+
+        this.trippedUntil = 0;
+        this.failures = 0;
+        this.windowStart = System.nanoTime();
+    }
+
+
+
+    /**
+     * Records the failure with the given signature.
+     * Throwable is logged with its stack trace only
+     * if the signature is new in the current window.
+     *
+     * @param signature failure signature
+     * @param throwable thrown exception
+     */
+    private synchronized void recordFailure(@Nonnull String signature,
+                                            Throwable throwable) {
+        long now = System.nanoTime();
+        if (now - this.windowStart >= this.window) {
+            this.flushRepeats();
+            this.failures = 0;
+            this.windowStart = now;
+        }
+
+        Integer count = this.repeats.get(signature);
+        if (count == null) {
+            this.repeats.put(signature, 0);
+            if (throwable != null)
+                this.logger.log(Level.SEVERE, "could not pass event to listener " + this.name, throwable);
+            else
+                this.logger.warning("listener " + this.name + " took longer than "
+                        + TimeUnit.NANOSECONDS.toMillis(this.maxDuration) + "ms");
+        } else {
+            this.repeats.put(signature, count + 1);
+        }
+
+        if (++this.failures >= this.settings.threshold() && this.trippedUntil == 0) {
+            this.flushRepeats();
+            this.tripCount++;
+            this.trippedUntil = (now + this.backoff) | 1L; // 0 means not tripped
+            this.logger.warning("listener " + this.name + " is disabled for "
+                    + TimeUnit.NANOSECONDS.toSeconds(this.backoff) + "s after "
+                    + this.failures + " failures");
+        }
+    }
+
+    /**
+     * Logs repeated failures as
+     * counted summaries and clears them.
+     */
+    private void flushRepeats() {
+        for (Map.Entry<String, Integer> entry : this.repeats.entrySet()) {
+            if (entry.getValue() <= 0)
+                continue;
+
+            if (entry.getKey().equals("slow"))
+                this.logger.warning("listener " + this.name + " was slow " + entry.getValue()
+                        + " more times, slowest took " + TimeUnit.NANOSECONDS.toMillis(this.slowest) + "ms");
+            else
+                this.logger.warning("listener " + this.name + " repeated "
+                        + entry.getKey() + " " + entry.getValue() + " more times");
+        }
+        this.repeats.clear();
+        this.slowest = 0;
+    }
+
+    /**
+     * Creates a short signature of the throwable
+     * from its type and the first stack frame.
+     *
+     * @param throwable throwable
+     * @return signature
+     */
+    private static @Nonnull String signatureOf(@Nonnull Throwable throwable) {
+        StackTraceElement[] trace = throwable.getStackTrace();
+        return (trace.length == 0) ?
+                throwable.getClass().getName() :
+                throwable.getClass().getName() + " at " + trace[0];
+    }
+}
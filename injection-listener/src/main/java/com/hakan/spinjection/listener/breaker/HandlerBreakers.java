@@ -0,0 +1,135 @@
+package com.hakan.spinjection.listener.breaker;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * HandlerBreakers class to
+ * register and list circuit
+ * breakers of event listeners.
+ */
+public class HandlerBreakers {
+
+    private static final long FLUSH_PERIOD = 20L;
+
+    private static final Map<String, HandlerBreaker> breakers = new ConcurrentHashMap<>();
+    private static final Map<Plugin, List<HandlerBreaker>> pluginBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a circuit breaker.
+     *
+     * @param breaker circuit breaker
+     */
+    public static void register(@Nonnull HandlerBreaker breaker) {
+        breakers.put(breaker.getName(), breaker);
+    }
+
+    /**
+     * Registers a circuit breaker of the plugin.
+     * Repeated failures of the breaker are logged
+     * by a timer shortly after each window, and
+     * the breaker is closed and unregistered when
+     * the plugin is disabled.
+     * <p>
+     * Breakers of a plugin share one timer and
+     * one disable listener, which are created
+     * with the first breaker of the plugin.
+     *
+     * @param plugin  plugin
+     * @param breaker circuit breaker
+     */
+    public static void register(@Nonnull Plugin plugin,
+                                @Nonnull HandlerBreaker breaker) {
+        register(breaker);
+        pluginBreakers.computeIfAbsent(plugin, HandlerBreakers::watch).add(breaker);
+    }
+
+    /**
+     * Finds the circuit breaker
+     * of the given listener.
+     *
+     * @param name listener name (class#method)
+     * @return circuit breaker
+     */
+    public static @Nonnull Optional<HandlerBreaker> findByName(@Nonnull String name) {
+        return Optional.ofNullable(breakers.get(name));
+    }
+
+    /**
+     * Gets all circuit breakers.
+     *
+     * @return circuit breakers
+     */
+    public static @Nonnull Collection<HandlerBreaker> getAll() {
+        return Collections.unmodifiableCollection(breakers.values());
+    }
+
+    /**
+     * Gets circuit breakers which
+     * are currently tripped.
+     *
+     * @return tripped circuit breakers
+     */
+    public static @Nonnull List<HandlerBreaker> getTripped() {
+        List<HandlerBreaker> tripped = new ArrayList<>();
+        for (HandlerBreaker breaker : breakers.values())
+            if (breaker.isTripped()) tripped.add(breaker);
+        return tripped;
+    }
+
+    /**
+     * Re-enables all tripped listeners.
+     */
+    public static void resetAll() {
+        breakers.values().forEach(HandlerBreaker::reset);
+    }
+
+
+
+    /**
+     * Starts the timer which flushes the
+     * breakers of the plugin, and listens
+     * the plugin to close and unregister
+     * its breakers when it is disabled.
+     *
+     * @param plugin plugin
+     * @return breaker list of the plugin
+     */
+    private static @Nonnull List<HandlerBreaker> watch(@Nonnull Plugin plugin) {
+        List<HandlerBreaker> list = new CopyOnWriteArrayList<>();
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> list.forEach(HandlerBreaker::flushExpired), FLUSH_PERIOD, FLUSH_PERIOD);
+
+        Bukkit.getPluginManager().registerEvent(
+                PluginDisableEvent.class,
+                new Listener() {
+                },
+                EventPriority.MONITOR,
+                (listener, event) -> {
+                    if (((PluginDisableEvent) event).getPlugin() != plugin)
+                        return;
+
+                    pluginBreakers.remove(plugin, list);
+                    for (HandlerBreaker breaker : list) {
+                        breaker.close();
+                        breakers.remove(breaker.getName(), breaker);
+                    }
+                },
+                plugin,
+                false
+        );
+        return list;
+    }
+}
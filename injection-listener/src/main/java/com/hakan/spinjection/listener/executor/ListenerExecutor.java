@@ -3,6 +3,9 @@ package com.hakan.spinjection.listener.executor;
 import com.hakan.spinjection.SpigotBootstrap;
 import com.hakan.spinjection.executor.SpigotExecutor;
 import com.hakan.spinjection.listener.annotations.EventListener;
+import com.hakan.spinjection.listener.breaker.HandlerBreaker;
+import com.hakan.spinjection.listener.breaker.HandlerBreakers;
+import com.hakan.spinjection.listener.replay.EventRecorder;
 import lombok.SneakyThrows;
 import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
@@ -26,6 +29,7 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
     private final Plugin plugin;
     private final Method method;
     private final EventListener listener;
+    private final HandlerBreaker breaker;
     private final Class<? extends Event> clazz;
 
     /**
@@ -40,6 +44,8 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
         this.method = method;
         this.listener = method.getAnnotation(EventListener.class);
         this.clazz = (Class<? extends Event>) method.getParameters()[0].getType();
+        this.breaker = (this.listener.breaker().enabled()) ?
+                new HandlerBreaker(plugin.getLogger(), method, this.listener.breaker()) : null;
     }
 
     /**
@@ -64,6 +70,16 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
         return this.method.getDeclaringClass();
     }
 
+    /**
+     * Gets the circuit breaker of the method
+     * that is annotated with {@link EventListener}.
+     *
+     * @return circuit breaker, null if it is disabled
+     */
+    public @Nullable HandlerBreaker getBreaker() {
+        return this.breaker;
+    }
+
 
 
     /**
@@ -79,6 +95,9 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
                         @Nonnull Object instance) {
         this.instance = instance;
 
+        if (this.breaker != null)
+            HandlerBreakers.register(this.plugin, this.breaker);
+
         Bukkit.getPluginManager().registerEvent(
                 this.clazz,
                 this,
@@ -92,6 +111,10 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
     /**
      * Executes event listener method which is
      * annotated with {@link EventListener}.
+     * <p>
+     * If the circuit breaker is enabled, failures
+     * are recorded to it instead of being thrown
+     * and tripped listener is skipped.
      *
      * @param listener listener
      * @param event    event
@@ -100,6 +123,11 @@ public class ListenerExecutor implements Listener, EventExecutor, SpigotExecutor
     @SneakyThrows
     public void execute(@Nonnull Listener listener,
                         @Nonnull Event event) {
-        this.method.invoke(this.instance, event);
+        EventRecorder.onEvent(event);
+
+        if (this.breaker == null)
+            this.method.invoke(this.instance, event);
+        else
+            this.breaker.invoke(this.method, this.instance, event);
     }
 }
@@ -0,0 +1,161 @@
+package com.hakan.spinjection.listener.executor;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.listener.annotations.RoutedListener;
+import com.hakan.spinjection.listener.breaker.HandlerBreaker;
+import com.hakan.spinjection.listener.breaker.HandlerBreakers;
+import com.hakan.spinjection.listener.replay.EventRecorder;
+import com.hakan.spinjection.listener.routing.ListenerRoutes;
+import com.hakan.spinjection.listener.routing.RouteKey;
+import lombok.SneakyThrows;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * RoutedListenerExecutor is a class that
+ * executes routed event listener method.
+ * <p>
+ * It is not registered to bukkit directly,
+ * the dispatcher of its event type calls it
+ * only for the keys bound to its route.
+ */
+@SuppressWarnings({"unchecked"})
+public class RoutedListenerExecutor implements SpigotExecutor {
+
+    private Object instance;
+    private final Plugin plugin;
+    private final Method method;
+    private final RoutedListener listener;
+    private final HandlerBreaker breaker;
+    private final Class<? extends Event> clazz;
+
+    /**
+     * Constructor of RoutedListenerExecutor.
+     *
+     * @param plugin plugin
+     * @param method method
+     */
+    public RoutedListenerExecutor(@Nonnull Plugin plugin,
+                                  @Nonnull Method method) {
+        this.plugin = plugin;
+        this.method = method;
+        this.listener = method.getAnnotation(RoutedListener.class);
+        this.clazz = (Class<? extends Event>) method.getParameters()[0].getType();
+        this.breaker = (this.listener.breaker().enabled()) ?
+                new HandlerBreaker(plugin.getLogger(), method, this.listener.breaker()) : null;
+    }
+
+    /**
+     * Gets the instance of the method class
+     * that is annotated with {@link RoutedListener}.
+     *
+     * @return instance
+     */
+    @Override
+    public @Nullable Object getInstance() {
+        return this.instance;
+    }
+
+    /**
+     * Gets the class of method that is
+     * annotated with {@link RoutedListener}.
+     *
+     * @return method
+     */
+    @Override
+    public @Nonnull Class<?> getDeclaringClass() {
+        return this.method.getDeclaringClass();
+    }
+
+    /**
+     * Gets the plugin of the listener.
+     *
+     * @return plugin
+     */
+    public @Nonnull Plugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Gets the route name of the listener.
+     *
+     * @return route name
+     */
+    public @Nonnull String getRoute() {
+        return this.listener.value();
+    }
+
+    /**
+     * Gets the route key type of the listener.
+     *
+     * @return route key type
+     */
+    public @Nonnull RouteKey getRouteKey() {
+        return this.listener.key();
+    }
+
+    /**
+     * Gets the event priority of the listener.
+     *
+     * @return event priority
+     */
+    public @Nonnull EventPriority getPriority() {
+        return this.listener.priority();
+    }
+
+    /**
+     * Gets the event type of the listener.
+     *
+     * @return event type
+     */
+    public @Nonnull Class<? extends Event> getEventClass() {
+        return this.clazz;
+    }
+
+
+
+    /**
+     * Registers routed listener method which is
+     * annotated with {@link RoutedListener}
+     * to dispatcher of its event type.
+     *
+     * @param bootstrap injector
+     * @param instance  instance
+     */
+    @Override
+    public void execute(@Nonnull SpigotBootstrap bootstrap,
+                        @Nonnull Object instance) {
+        this.instance = instance;
+
+        if (this.breaker != null)
+            HandlerBreakers.register(this.plugin, this.breaker);
+
+        ListenerRoutes.register(this);
+    }
+
+    /**
+     * Executes routed listener method which is
+     * annotated with {@link RoutedListener}.
+     * <p>
+     * If the circuit breaker is enabled, failures
+     * are recorded to it instead of being thrown
+     * and tripped listener is skipped.
+     *
+     * @param event event
+     */
+    @SneakyThrows
+    public void call(@Nonnull Event event) {
+        EventRecorder.onEvent(event);
+
+        if (this.breaker == null)
+            this.method.invoke(this.instance, event);
+        else
+            this.breaker.invoke(this.method, this.instance, event);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hakan.spinjection.listener.module;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.listener.annotations.RoutedListener;
+import com.hakan.spinjection.listener.executor.RoutedListenerExecutor;
+import com.hakan.spinjection.module.SpigotModule;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * RoutedListenerModule registers routed event listeners.
+ */
+public class RoutedListenerModule extends SpigotModule<Method, RoutedListener> {
+
+    /**
+     * Constructor of RoutedListenerModule.
+     *
+     * @param bootstrap bootstrap
+     */
+    public RoutedListenerModule(@Nonnull SpigotBootstrap bootstrap) {
+        super(bootstrap, Method.class, RoutedListener.class);
+    }
+
+    /**
+     * Loads event listener methods that are annotated with {@link RoutedListener}.
+     * And creates {@link RoutedListenerExecutor} for each class to
+     * handle routing processes.
+     *
+     * @param methods methods that are annotated with {@link RoutedListener}.
+     */
+    @Override
+    public void load(@Nonnull Set<Method> methods) {
+        for (Method method : methods) {
+            if (method.getParameterCount() != 1)
+                throw new RuntimeException("routed listener method must have only one parameter!");
+            if (!Event.class.isAssignableFrom(method.getParameters()[0].getType()))
+                throw new RuntimeException("routed listener method parameter must be a subclass of org.bukkit.event.Event!");
+            if (method.getReturnType() != void.class)
+                throw new RuntimeException("routed listener method must have void return type!");
+
+            super.executors.add(new RoutedListenerExecutor(super.plugin, method));
+        }
+    }
+
+    /**
+     * Executes all routed listener executors which are
+     * saved in {@link #executors}.
+     * <p>
+     * Then it runs execute method of each executor.
+     */
+    @Override
+    public void execute() {
+        for (SpigotExecutor executor : super.executors) {
+            executor.execute(bootstrap, bootstrap.getInstance(executor.getDeclaringClass()));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.hakan.spinjection.listener.replay;
+
+import lombok.SneakyThrows;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * EventCodec writes and reads field values
+ * of the events in the compact binary format
+ * of the event stream.
+ * <p>
+ * Only primitives, strings, enums, unique ids,
+ * entities, worlds and locations are kept. Other
+ * fields are left null when the event is replayed.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+class EventCodec {
+
+    static final int MAGIC = 0x53504552;
+    static final int VERSION = 1;
+
+    static final byte CLASS_RECORD = 1;
+    static final byte EVENT_RECORD = 2;
+
+    static final byte BOOLEAN = 0;
+    static final byte BYTE = 1;
+    static final byte SHORT = 2;
+    static final byte CHAR = 3;
+    static final byte INT = 4;
+    static final byte LONG = 5;
+    static final byte FLOAT = 6;
+    static final byte DOUBLE = 7;
+    static final byte STRING = 8;
+    static final byte ENUM = 9;
+    static final byte UNIQUE_ID = 10;
+    static final byte ENTITY = 11;
+    static final byte WORLD = 12;
+    static final byte LOCATION = 13;
+
+    /**
+     * Gets the codec type of the field type.
+     *
+     * @param type field type
+     * @return codec type, -1 if it is not supported
+     */
+    static byte typeOf(@Nonnull Class<?> type) {
+        if (type == boolean.class) return BOOLEAN;
+        if (type == byte.class) return BYTE;
+        if (type == short.class) return SHORT;
+        if (type == char.class) return CHAR;
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == float.class) return FLOAT;
+        if (type == double.class) return DOUBLE;
+        if (type == String.class) return STRING;
+        if (type.isEnum()) return ENUM;
+        if (type == UUID.class) return UNIQUE_ID;
+        if (Entity.class.isAssignableFrom(type)) return ENTITY;
+        if (World.class.isAssignableFrom(type)) return WORLD;
+        if (type == Location.class) return LOCATION;
+        return -1;
+    }
+
+    /**
+     * Gets the instance fields of the event
+     * class and its super classes which can
+     * be written to the event stream.
+     *
+     * @param clazz event class
+     * @return supported fields
+     */
+    static @Nonnull List<Field> fieldsOf(@Nonnull Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || typeOf(field.getType()) < 0)
+                    continue;
+
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+
+
+    /**
+     * Writes the field value to the stream.
+     *
+     * @param out   output stream
+     * @param type  codec type
+     * @param value field value
+     */
+    @SneakyThrows
+    static void write(@Nonnull DataOutputStream out,
+                      byte type,
+                      @Nullable Object value) {
+        switch (type) {
+            case BOOLEAN: out.writeBoolean((boolean) value); return;
+            case BYTE: out.writeByte((byte) value); return;
+            case SHORT: out.writeShort((short) value); return;
+            case CHAR: out.writeChar((char) value); return;
+            case INT: out.writeInt((int) value); return;
+            case LONG: out.writeLong((long) value); return;
+            case FLOAT: out.writeFloat((float) value); return;
+            case DOUBLE: out.writeDouble((double) value); return;
+        }
+
+        out.writeBoolean(value != null);
+        if (value == null) return;
+
+        switch (type) {
+            case STRING:
+                out.writeUTF((String) value);
+                break;
+            case ENUM:
+                out.writeUTF(((Enum<?>) value).name());
+                break;
+            case UNIQUE_ID:
+                writeUniqueId(out, (UUID) value);
+                break;
+            case ENTITY:
+                writeUniqueId(out, ((Entity) value).getUniqueId());
+                break;
+            case WORLD:
+                out.writeUTF(((World) value).getName());
+                break;
+            case LOCATION:
+                Location location = (Location) value;
+                write(out, WORLD, location.getWorld());
+                out.writeDouble(location.getX());
+                out.writeDouble(location.getY());
+                out.writeDouble(location.getZ());
+                out.writeFloat(location.getYaw());
+                out.writeFloat(location.getPitch());
+                break;
+        }
+    }
+
+    /**
+     * Reads the field value from the stream.
+     *
+     * @param in        input stream
+     * @param type      codec type
+     * @param fieldType field type
+     * @param entities  entity resolver
+     * @param worlds    world resolver
+     * @return field value
+     */
+    @SneakyThrows
+    static @Nullable Object read(@Nonnull DataInputStream in,
+                                 byte type,
+                                 @Nullable Class<?> fieldType,
+                                 @Nonnull Function<UUID, ? extends Entity> entities,
+                                 @Nonnull Function<String, ? extends World> worlds) {
+        switch (type) {
+            case BOOLEAN: return in.readBoolean();
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case CHAR: return in.readChar();
+            case INT: return in.readInt();
+            case LONG: return in.readLong();
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+        }
+
+        if (!in.readBoolean())
+            return null;
+
+        switch (type) {
+            case STRING:
+                return in.readUTF();
+            case ENUM:
+                String name = in.readUTF();
+                return (fieldType != null) ? Enum.valueOf((Class<Enum>) fieldType, name) : null;
+            case UNIQUE_ID:
+                return readUniqueId(in);
+            case ENTITY:
+                return entities.apply(readUniqueId(in));
+            case WORLD:
+                return worlds.apply(in.readUTF());
+            case LOCATION:
+                World world = (World) read(in, WORLD, World.class, entities, worlds);
+                return new Location(world, in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+            default:
+                throw new IllegalStateException("unknown field type in event stream: " + type);
+        }
+    }
+
+
+
+    /**
+     * Writes unique id to the stream.
+     *
+     * @param out      output stream
+     * @param uniqueId unique id
+     */
+    @SneakyThrows
+    private static void writeUniqueId(@Nonnull DataOutputStream out,
+                                      @Nonnull UUID uniqueId) {
+        out.writeLong(uniqueId.getMostSignificantBits());
+        out.writeLong(uniqueId.getLeastSignificantBits());
+    }
+
+    /**
+     * Reads unique id from the stream.
+     *
+     * @param in input stream
+     * @return unique id
+     */
+    @SneakyThrows
+    private static @Nonnull UUID readUniqueId(@Nonnull DataInputStream in) {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,283 @@
+package com.hakan.spinjection.listener.replay;
+
+import com.hakan.spinjection.listener.executor.ListenerExecutor;
+import lombok.SneakyThrows;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+
+/**
+ * EventRecorder writes the events which
+ * flow through {@link ListenerExecutor}
+ * to a local file as a compact binary
+ * stream to replay them later with
+ * {@link EventReplayer}.
+ * <p>
+ * Only one recorder can be active at a time.
+ * Events are remembered weakly by their
+ * identity, so an event is recorded once
+ * however its listeners and nested events
+ * are interleaved.
+ */
+public class EventRecorder {
+
+    private static volatile EventRecorder active;
+
+    /**
+     * Starts recording all events to the file.
+     *
+     * @param file file to write
+     * @return recorder
+     */
+    public static @Nonnull EventRecorder start(@Nonnull File file) {
+        return start(file, new HashSet<>());
+    }
+
+    /**
+     * Starts recording events to the file.
+     *
+     * @param file  file to write
+     * @param types event types to record,
+     *              empty to record all events
+     * @return recorder
+     */
+    public static synchronized @Nonnull EventRecorder start(@Nonnull File file,
+                                                            @Nonnull Collection<Class<? extends Event>> types) {
+        if (active != null)
+            throw new IllegalStateException("event recorder is already running!");
+
+        active = new EventRecorder(file, types);
+        return active;
+    }
+
+    /**
+     * Stops the active recorder
+     * and closes its file.
+     */
+    public static synchronized void stop() {
+        if (active == null) return;
+
+        active.close();
+        active = null;
+    }
+
+    /**
+     * Gets the active recorder.
+     *
+     * @return active recorder, null if not recording
+     */
+    public static @Nullable EventRecorder getActive() {
+        return active;
+    }
+
+    /**
+     * Records the event if there
+     * is an active recorder.
+     *
+     * @param event event
+     */
+    public static void onEvent(@Nonnull Event event) {
+        EventRecorder recorder = active;
+        if (recorder != null) recorder.record(event);
+    }
+
+
+
+    private final File file;
+    private final DataOutputStream out;
+    private final Set<Class<? extends Event>> types;
+    private final Map<Class<?>, Integer> ids;
+    private final List<List<Field>> layouts;
+    private final long startNanos;
+    private long lastNanos;
+    private final Set<Event> recorded;
+    private long count;
+    private boolean closed;
+
+    /**
+     * Constructor of EventRecorder.
+     *
+     * @param file  file to write
+     * @param types event types to record
+     */
+    @SneakyThrows
+    private EventRecorder(@Nonnull File file,
+                          @Nonnull Collection<Class<? extends Event>> types) {
+        this.file = file;
+        this.types = new HashSet<>(types);
+        this.ids = new HashMap<>();
+        this.layouts = new ArrayList<>();
+        this.recorded = Collections.newSetFromMap(new WeakHashMap<>());
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()), 1 << 16));
+        this.out.writeInt(EventCodec.MAGIC);
+        this.out.writeInt(EventCodec.VERSION);
+        this.startNanos = System.nanoTime();
+        this.lastNanos = this.startNanos;
+    }
+
+    /**
+     * Gets the file of the recorder.
+     *
+     * @return file
+     */
+    public @Nonnull File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the recorded event count.
+     *
+     * @return recorded event count
+     */
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the recording time.
+     *
+     * @return recording time as nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+
+
+    /**
+     * Writes the event to the stream.
+     * Same event is written once even if
+     * it is passed to many listeners, or
+     * other events are called between them.
+     * <p>
+     * If the stream fails, the error is
+     * logged once and the recorder is stopped,
+     * so listeners never see the error.
+     *
+     * @param event event
+     */
+    private synchronized void record(@Nonnull Event event) {
+        if (this.closed || !this.recorded.add(event))
+            return;
+
+        try {
+            this.write(event);
+        } catch (IOException | IllegalAccessException e) {
+            Bukkit.getLogger().log(Level.SEVERE, "event recorder " + this.file + " failed, recording is stopped", e);
+            this.fail();
+        }
+    }
+
+    /**
+     * Writes the event record to the stream.
+     *
+     * @param event event
+     */
+    private void write(@Nonnull Event event) throws IOException, IllegalAccessException {
+        Class<? extends Event> clazz = event.getClass();
+        Integer id = this.ids.get(clazz);
+        if (id == null) {
+            id = this.isRecorded(clazz) ? this.writeClass(clazz) : -1;
+            this.ids.put(clazz, id);
+        }
+        if (id < 0)
+            return;
+
+        long now = System.nanoTime();
+        this.out.writeByte(EventCodec.EVENT_RECORD);
+        this.out.writeShort(id);
+        this.out.writeLong(now - this.lastNanos);
+        for (Field field : this.layouts.get(id))
+            EventCodec.write(this.out, EventCodec.typeOf(field.getType()), field.get(event));
+
+        this.lastNanos = now;
+        this.count++;
+    }
+
+    /**
+     * Writes the field layout of
+     * the event class to the stream.
+     *
+     * @param clazz event class
+     * @return id of the event class
+     */
+    private int writeClass(@Nonnull Class<?> clazz) throws IOException {
+        int id = this.layouts.size();
+        List<Field> fields = EventCodec.fieldsOf(clazz);
+        this.layouts.add(fields);
+
+        this.out.writeByte(EventCodec.CLASS_RECORD);
+        this.out.writeShort(id);
+        this.out.writeUTF(clazz.getName());
+        this.out.writeShort(fields.size());
+        for (Field field : fields) {
+            this.out.writeUTF(field.getDeclaringClass().getName());
+            this.out.writeUTF(field.getName());
+            this.out.writeByte(EventCodec.typeOf(field.getType()));
+        }
+        return id;
+    }
+
+    /**
+     * Checks if the event class
+     * is in the recorded types.
+     *
+     * @param clazz event class
+     * @return true if recorded
+     */
+    private boolean isRecorded(@Nonnull Class<?> clazz) {
+        if (this.types.isEmpty())
+            return true;
+
+        for (Class<? extends Event> type : this.types)
+            if (type.isAssignableFrom(clazz)) return true;
+        return false;
+    }
+
+    /**
+     * Flushes and closes the stream.
+     */
+    @SneakyThrows
+    private synchronized void close() {
+        if (this.closed)
+            return;
+
+        this.closed = true;
+        this.recorded.clear();
+        this.out.close();
+    }
+
+    /**
+     * Closes the failed stream without
+     * throwing and deactivates the recorder.
+     */
+    private void fail() {
+        this.closed = true;
+        this.recorded.clear();
+        try {
+            this.out.close();
+        } catch (IOException ignored) {
+        }
+
+        if (active == this)
+            active = null;
+    }
+}
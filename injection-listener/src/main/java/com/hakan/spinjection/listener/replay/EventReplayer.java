@@ -0,0 +1,302 @@
+package com.hakan.spinjection.listener.replay;
+
+import com.hakan.spinjection.listener.annotations.EventListener;
+import lombok.SneakyThrows;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * EventReplayer reads an event stream which is
+ * written by {@link EventRecorder} and feeds the
+ * events to the registered {@link EventListener}
+ * methods as fast as possible, without a server.
+ * <p>
+ * Events are created without calling their
+ * constructors and their recorded fields are set.
+ * Entities and worlds are resolved with the given
+ * resolvers, so they can be stubbed for the replay.
+ */
+@SuppressWarnings({"unchecked"})
+public class EventReplayer {
+
+    private static final Object UNSAFE;
+    private static final Method ALLOCATE_INSTANCE;
+
+
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+
+            UNSAFE = field.get(null);
+            ALLOCATE_INSTANCE = unsafeClass.getMethod("allocateInstance", Class.class);
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+
+
+    private final File file;
+    private final List<Handler> handlers;
+    private final Map<Class<?>, Handler[]> handlersByEvent;
+    private Function<UUID, ? extends Entity> entities;
+    private Function<String, ? extends World> worlds;
+
+    /**
+     * Constructor of EventReplayer.
+     *
+     * @param file event stream file
+     */
+    public EventReplayer(@Nonnull File file) {
+        this.file = file;
+        this.handlers = new ArrayList<>();
+        this.handlersByEvent = new HashMap<>();
+        this.entities = uniqueId -> null;
+        this.worlds = name -> null;
+    }
+
+    /**
+     * Sets the entity resolver which
+     * creates stub entities from their
+     * recorded unique ids.
+     *
+     * @param entities entity resolver
+     * @return replayer
+     */
+    public @Nonnull EventReplayer entities(@Nonnull Function<UUID, ? extends Entity> entities) {
+        this.entities = entities;
+        return this;
+    }
+
+    /**
+     * Sets the world resolver which
+     * creates stub worlds from their
+     * recorded names.
+     *
+     * @param worlds world resolver
+     * @return replayer
+     */
+    public @Nonnull EventReplayer worlds(@Nonnull Function<String, ? extends World> worlds) {
+        this.worlds = worlds;
+        return this;
+    }
+
+    /**
+     * Registers the methods of the instance
+     * which are annotated with {@link EventListener}.
+     *
+     * @param instance listener instance
+     * @return replayer
+     */
+    public @Nonnull EventReplayer register(@Nonnull Object instance) {
+        for (Method method : instance.getClass().getDeclaredMethods()) {
+            EventListener listener = method.getAnnotation(EventListener.class);
+            if (listener == null || method.getParameterCount() != 1)
+                continue;
+            if (!Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+                continue;
+
+            method.setAccessible(true);
+            this.handlers.add(new Handler(instance, method, listener));
+        }
+
+        this.handlers.sort(Comparator.comparingInt(handler -> handler.listener.priority().ordinal()));
+        this.handlersByEvent.clear();
+        return this;
+    }
+
+
+
+    /**
+     * Replays the event stream.
+     *
+     * @return replay report
+     */
+    @SneakyThrows
+    public @Nonnull ReplayReport replay() {
+        List<EventLayout> layouts = new ArrayList<>();
+        Map<String, Long> handlerNanos = new LinkedHashMap<>();
+        long[] latencies = new long[1024];
+        long events = 0, failures = 0, recordedNanos = 0, elapsedNanos = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file.toPath()), 1 << 16))) {
+            if (in.readInt() != EventCodec.MAGIC)
+                throw new IllegalArgumentException("file is not an event stream!");
+            if (in.readInt() != EventCodec.VERSION)
+                throw new IllegalArgumentException("unsupported event stream version!");
+
+            while (true) {
+                byte record;
+                try {
+                    record = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (record == EventCodec.CLASS_RECORD) {
+                    int id = in.readShort();
+                    while (layouts.size() <= id) layouts.add(null);
+                    layouts.set(id, this.readLayout(in));
+                    continue;
+                }
+                if (record != EventCodec.EVENT_RECORD)
+                    throw new IllegalStateException("unknown record in event stream: " + record);
+
+                EventLayout layout = layouts.get(in.readShort());
+                recordedNanos += in.readLong();
+
+                Object event = layout.clazz == null ? null : ALLOCATE_INSTANCE.invoke(UNSAFE, layout.clazz);
+                for (int i = 0; i < layout.types.length; i++) {
+                    Field field = layout.fields[i];
+                    Object value = EventCodec.read(in, layout.types[i], (field != null) ? field.getType() : null, this.entities, this.worlds);
+                    if (event != null && field != null) field.set(event, value);
+                }
+                if (event == null)
+                    continue;
+
+                long start = System.nanoTime();
+                for (Handler handler : this.handlersOf(layout.clazz)) {
+                    long handlerStart = System.nanoTime();
+                    try {
+                        handler.method.invoke(handler.instance, event);
+                    } catch (InvocationTargetException e) {
+                        failures++;
+                    }
+                    handlerNanos.merge(handler.name, System.nanoTime() - handlerStart, Long::sum);
+                }
+                long latency = System.nanoTime() - start;
+
+                if (events == latencies.length)
+                    latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                latencies[(int) events++] = latency;
+                elapsedNanos += latency;
+            }
+        }
+
+        return new ReplayReport(
+                events,
+                failures,
+                elapsedNanos,
+                recordedNanos,
+                Arrays.copyOf(latencies, (int) events),
+                handlerNanos
+        );
+    }
+
+
+
+    /**
+     * Reads the field layout of an event class.
+     * If the class or a field does not exist
+     * anymore, its values are skipped.
+     *
+     * @param in input stream
+     * @return event layout
+     */
+    @SneakyThrows
+    private @Nonnull EventLayout readLayout(@Nonnull DataInputStream in) {
+        Class<?> clazz = this.findClass(in.readUTF());
+        int size = in.readShort();
+
+        Field[] fields = new Field[size];
+        byte[] types = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Class<?> declaring = this.findClass(in.readUTF());
+            String name = in.readUTF();
+            types[i] = in.readByte();
+
+            try {
+                fields[i] = (declaring != null) ? declaring.getDeclaredField(name) : null;
+                if (fields[i] != null) fields[i].setAccessible(true);
+            } catch (NoSuchFieldException e) {
+                fields[i] = null;
+            }
+        }
+
+        return new EventLayout(clazz, fields, types);
+    }
+
+    /**
+     * Finds the class by its name.
+     *
+     * @param name class name
+     * @return class, null if not found
+     */
+    private Class<?> findClass(@Nonnull String name) {
+        try {
+            return Class.forName(name, false, this.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the handlers which listen
+     * the event class, ordered by priority.
+     *
+     * @param clazz event class
+     * @return handlers
+     */
+    private @Nonnull Handler[] handlersOf(@Nonnull Class<?> clazz) {
+        return this.handlersByEvent.computeIfAbsent(clazz, key -> this.handlers.stream()
+                .filter(handler -> handler.method.getParameterTypes()[0].isAssignableFrom(key))
+                .toArray(Handler[]::new));
+    }
+
+    /**
+     * Field layout of a recorded event class.
+     */
+    private static class EventLayout {
+
+        private final Class<?> clazz;
+        private final Field[] fields;
+        private final byte[] types;
+
+        private EventLayout(Class<?> clazz, Field[] fields, byte[] types) {
+            this.clazz = clazz;
+            this.fields = fields;
+            this.types = types;
+        }
+    }
+
+    /**
+     * Registered event listener method.
+     */
+    private static class Handler {
+
+        private final Object instance;
+        private final Method method;
+        private final EventListener listener;
+        private final String name;
+
+        private Handler(Object instance, Method method, EventListener listener) {
+            this.instance = instance;
+            this.method = method;
+            this.listener = listener;
+            this.name = method.getDeclaringClass().getName() + "#" + method.getName();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.hakan.spinjection.listener.replay;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReplayReport keeps the throughput and
+ * latency results of an event stream replay.
+ */
+public class ReplayReport {
+
+    private final long events;
+    private final long failures;
+    private final long elapsedNanos;
+    private final long recordedNanos;
+    private final long[] latencies;
+    private final Map<String, Long> handlerNanos;
+
+    /**
+     * Constructor of ReplayReport.
+     *
+     * @param events        replayed event count
+     * @param failures      failed handler call count
+     * @param elapsedNanos  replay time
+     * @param recordedNanos recording time of the stream
+     * @param latencies     latency of each event
+     * @param handlerNanos  total time of each handler
+     */
+    public ReplayReport(long events,
+                        long failures,
+                        long elapsedNanos,
+                        long recordedNanos,
+                        @Nonnull long[] latencies,
+                        @Nonnull Map<String, Long> handlerNanos) {
+        this.events = events;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+        this.recordedNanos = recordedNanos;
+        this.latencies = latencies.clone();
+        this.handlerNanos = Collections.unmodifiableMap(handlerNanos);
+        Arrays.sort(this.latencies);
+    }
+
+    /**
+     * Gets the replayed event count.
+     *
+     * @return event count
+     */
+    public long getEvents() {
+        return this.events;
+    }
+
+    /**
+     * Gets the failed handler call count.
+     *
+     * @return failure count
+     */
+    public long getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Gets the replay time.
+     *
+     * @param timeUnit time unit
+     * @return replay time
+     */
+    public long getElapsed(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time that the stream
+     * was recorded in production.
+     *
+     * @param timeUnit time unit
+     * @return recording time
+     */
+    public long getRecorded(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.recordedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the replayed events per second.
+     *
+     * @return throughput
+     */
+    public double getThroughput() {
+        return (this.elapsedNanos == 0) ? 0 : this.events * 1_000_000_000D / this.elapsedNanos;
+    }
+
+    /**
+     * Gets the latency of an event
+     * at the given percentile.
+     *
+     * @param percentile percentile between 0 and 100
+     * @param timeUnit   time unit
+     * @return latency
+     */
+    public long getLatency(double percentile, @Nonnull TimeUnit timeUnit) {
+        if (this.latencies.length == 0)
+            return 0;
+
+        int index = (int) Math.ceil(percentile / 100D * this.latencies.length) - 1;
+        index = Math.max(0, Math.min(this.latencies.length - 1, index));
+        return timeUnit.convert(this.latencies[index], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the total time that each
+     * handler (class#method) spent.
+     *
+     * @return handler times as nanoseconds
+     */
+    public @Nonnull Map<String, Long> getHandlerNanos() {
+        return this.handlerNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(
+                "%d events in %dms (%.0f events/s, recorded in %dms), %d failures, " +
+                "latency p50=%dus p99=%dus max=%dus",
+                this.events,
+                this.getElapsed(TimeUnit.MILLISECONDS),
+                this.getThroughput(),
+                this.getRecorded(TimeUnit.MILLISECONDS),
+                this.failures,
+                this.getLatency(50, TimeUnit.MICROSECONDS),
+                this.getLatency(99, TimeUnit.MICROSECONDS),
+                this.getLatency(100, TimeUnit.MICROSECONDS)
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.hakan.spinjection.listener.routing;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * ChunkKey is an immutable key of
+ * a chunk which can be created without
+ * loading the chunk itself.
+ */
+public final class ChunkKey {
+
+    /**
+     * Creates a chunk key from the chunk.
+     *
+     * @param chunk chunk
+     * @return chunk key
+     */
+    public static @Nonnull ChunkKey of(@Nonnull Chunk chunk) {
+        return new ChunkKey(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Creates a chunk key of the
+     * chunk that the location is in.
+     *
+     * @param location location
+     * @return chunk key
+     */
+    public static @Nonnull ChunkKey of(@Nonnull Location location) {
+        return of(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Creates a chunk key from
+     * the world and chunk coordinates.
+     *
+     * @param world world
+     * @param x     chunk x
+     * @param z     chunk z
+     * @return chunk key
+     */
+    public static @Nonnull ChunkKey of(@Nonnull World world, int x, int z) {
+        return new ChunkKey(world.getUID(), x, z);
+    }
+
+
+
+    private final UUID world;
+    private final int x;
+    private final int z;
+
+    /**
+     * Constructor of ChunkKey.
+     *
+     * @param world world uid
+     * @param x     chunk x
+     * @param z     chunk z
+     */
+    public ChunkKey(@Nonnull UUID world, int x, int z) {
+        this.world = world;
+        this.x = x;
+        this.z = z;
+    }
+
+    /**
+     * Gets the world uid.
+     *
+     * @return world uid
+     */
+    public @Nonnull UUID getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gets the chunk x.
+     *
+     * @return chunk x
+     */
+    public int getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the chunk z.
+     *
+     * @return chunk z
+     */
+    public int getZ() {
+        return this.z;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChunkKey)) return false;
+
+        ChunkKey key = (ChunkKey) o;
+        return this.x == key.x && this.z == key.z && this.world.equals(key.world);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.world.hashCode() + this.x) + this.z;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.world + ":" + this.x + ":" + this.z;
+    }
+}
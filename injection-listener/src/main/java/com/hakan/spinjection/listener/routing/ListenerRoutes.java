@@ -0,0 +1,212 @@
+package com.hakan.spinjection.listener.routing;
+
+import com.hakan.spinjection.listener.annotations.RoutedListener;
+import com.hakan.spinjection.listener.executor.RoutedListenerExecutor;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ListenerRoutes class to bind and
+ * unbind keys to routes of the listeners
+ * which are annotated with {@link RoutedListener}.
+ * <p>
+ * Bound keys are kept until they are unbound,
+ * so player keys should be unbound when
+ * the player leaves the route or the server.
+ */
+public class ListenerRoutes {
+
+    private static final Map<String, RouteDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private static final Map<String, Map<RouteKey, Set<Object>>> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Registers routed listener to the
+     * dispatcher of its event type. Dispatcher
+     * is created and registered to the server
+     * when its first listener is registered.
+     *
+     * @param executor routed listener
+     */
+    public static void register(@Nonnull RoutedListenerExecutor executor) {
+        String dispatcherKey = executor.getEventClass().getName() + ":" + executor.getPriority();
+        RouteDispatcher dispatcher = dispatchers.computeIfAbsent(dispatcherKey, key -> {
+            RouteDispatcher created = new RouteDispatcher(executor.getEventClass(), executor.getPriority());
+            created.register(executor.getPlugin());
+            return created;
+        });
+        dispatcher.add(executor);
+
+        Set<Object> keys = getKeys(executor.getRoute(), executor.getRouteKey());
+        for (Object key : keys)
+            dispatcher.bind(executor.getRoute(), executor.getRouteKey(), key);
+    }
+
+    /**
+     * Gets all dispatchers.
+     *
+     * @return dispatchers
+     */
+    public static @Nonnull Collection<RouteDispatcher> getDispatchers() {
+        return Collections.unmodifiableCollection(dispatchers.values());
+    }
+
+    /**
+     * Gets the bound keys of the route.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @return bound keys
+     */
+    public static @Nonnull Set<Object> getKeys(@Nonnull String route,
+                                               @Nonnull RouteKey keyType) {
+        Map<RouteKey, Set<Object>> routeBindings = bindings.get(route);
+        if (routeBindings == null) return Collections.emptySet();
+
+        Set<Object> keys = routeBindings.get(keyType);
+        return (keys == null) ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Checks if the key is bound to the route.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @param key     key
+     * @return true if bound
+     */
+    public static boolean isBound(@Nonnull String route,
+                                  @Nonnull RouteKey keyType,
+                                  @Nonnull Object key) {
+        return getKeys(route, keyType).contains(key);
+    }
+
+
+
+    /**
+     * Binds the key to the route.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @param key     key
+     */
+    public static void bind(@Nonnull String route,
+                            @Nonnull RouteKey keyType,
+                            @Nonnull Object key) {
+        bindings.computeIfAbsent(route, r -> new ConcurrentHashMap<>())
+                .computeIfAbsent(keyType, k -> ConcurrentHashMap.newKeySet())
+                .add(key);
+
+        for (RouteDispatcher dispatcher : dispatchers.values())
+            dispatcher.bind(route, keyType, key);
+    }
+
+    /**
+     * Binds the player to the route.
+     *
+     * @param route  route name
+     * @param player player
+     */
+    public static void bind(@Nonnull String route, @Nonnull Player player) {
+        bind(route, RouteKey.PLAYER, player.getUniqueId());
+    }
+
+    /**
+     * Binds the world to the route.
+     *
+     * @param route route name
+     * @param world world
+     */
+    public static void bind(@Nonnull String route, @Nonnull World world) {
+        bind(route, RouteKey.WORLD, world.getUID());
+    }
+
+    /**
+     * Binds the chunk to the route.
+     *
+     * @param route route name
+     * @param chunk chunk
+     */
+    public static void bind(@Nonnull String route, @Nonnull Chunk chunk) {
+        bind(route, RouteKey.CHUNK, ChunkKey.of(chunk));
+    }
+
+    /**
+     * Unbinds the key from the route.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @param key     key
+     */
+    public static void unbind(@Nonnull String route,
+                              @Nonnull RouteKey keyType,
+                              @Nonnull Object key) {
+        Map<RouteKey, Set<Object>> routeBindings = bindings.get(route);
+        if (routeBindings == null || !routeBindings.getOrDefault(keyType, Collections.emptySet()).remove(key))
+            return;
+
+        for (RouteDispatcher dispatcher : dispatchers.values())
+            dispatcher.unbind(route, keyType, key);
+    }
+
+    /**
+     * Unbinds the player from the route.
+     *
+     * @param route  route name
+     * @param player player
+     */
+    public static void unbind(@Nonnull String route, @Nonnull Player player) {
+        unbind(route, RouteKey.PLAYER, player.getUniqueId());
+    }
+
+    /**
+     * Unbinds the world from the route.
+     *
+     * @param route route name
+     * @param world world
+     */
+    public static void unbind(@Nonnull String route, @Nonnull World world) {
+        unbind(route, RouteKey.WORLD, world.getUID());
+    }
+
+    /**
+     * Unbinds the chunk from the route.
+     *
+     * @param route route name
+     * @param chunk chunk
+     */
+    public static void unbind(@Nonnull String route, @Nonnull Chunk chunk) {
+        unbind(route, RouteKey.CHUNK, ChunkKey.of(chunk));
+    }
+
+    /**
+     * Unbinds the key from all routes.
+     *
+     * @param keyType key type
+     * @param key     key
+     */
+    public static void unbindAll(@Nonnull RouteKey keyType,
+                                 @Nonnull Object key) {
+        for (Map<RouteKey, Set<Object>> routeBindings : bindings.values())
+            routeBindings.getOrDefault(keyType, Collections.emptySet()).remove(key);
+
+        for (RouteDispatcher dispatcher : dispatchers.values())
+            dispatcher.unbindAll(keyType, key);
+    }
+
+    /**
+     * Unbinds the player from all routes.
+     *
+     * @param player player
+     */
+    public static void unbindAll(@Nonnull Player player) {
+        unbindAll(RouteKey.PLAYER, player.getUniqueId());
+    }
+}
@@ -0,0 +1,223 @@
+package com.hakan.spinjection.listener.routing;
+
+import com.hakan.spinjection.listener.executor.RoutedListenerExecutor;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RouteDispatcher is the only bukkit listener
+ * of an event type and priority for routed
+ * listeners. It extracts the route key from
+ * the event and calls only the listeners
+ * which are bound to that key.
+ */
+public class RouteDispatcher implements Listener, EventExecutor {
+
+    private static final RoutedListenerExecutor[] EMPTY = new RoutedListenerExecutor[0];
+
+
+
+    private final Class<? extends Event> clazz;
+    private final EventPriority priority;
+    private final List<RoutedListenerExecutor> executors;
+    private final Map<RouteKey, Map<Object, RoutedListenerExecutor[]>> index;
+    private volatile RouteKey[] keyTypes;
+
+    /**
+     * Constructor of RouteDispatcher.
+     *
+     * @param clazz    event type
+     * @param priority event priority
+     */
+    public RouteDispatcher(@Nonnull Class<? extends Event> clazz,
+                           @Nonnull EventPriority priority) {
+        this.clazz = clazz;
+        this.priority = priority;
+        this.keyTypes = new RouteKey[0];
+        this.index = new ConcurrentHashMap<>();
+        this.executors = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Gets the event type.
+     *
+     * @return event type
+     */
+    public @Nonnull Class<? extends Event> getEventClass() {
+        return this.clazz;
+    }
+
+    /**
+     * Gets the event priority.
+     *
+     * @return event priority
+     */
+    public @Nonnull EventPriority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Gets the routed listeners
+     * of the dispatcher.
+     *
+     * @return routed listeners
+     */
+    public @Nonnull List<RoutedListenerExecutor> getExecutors() {
+        return this.executors;
+    }
+
+    /**
+     * Gets count of the bound
+     * keys of the key type.
+     *
+     * @param keyType key type
+     * @return bound key count
+     */
+    public int getBoundKeyCount(@Nonnull RouteKey keyType) {
+        Map<Object, RoutedListenerExecutor[]> keys = this.index.get(keyType);
+        return (keys == null) ? 0 : keys.size();
+    }
+
+
+
+    /**
+     * Registers the dispatcher to
+     * plugin manager of the server.
+     *
+     * @param plugin plugin
+     */
+    public void register(@Nonnull Plugin plugin) {
+        Bukkit.getPluginManager().registerEvent(
+                this.clazz,
+                this,
+                this.priority,
+                this,
+                plugin,
+                false
+        );
+    }
+
+    /**
+     * Adds routed listener to the dispatcher.
+     *
+     * @param executor routed listener
+     */
+    public synchronized void add(@Nonnull RoutedListenerExecutor executor) {
+        this.executors.add(executor);
+        this.index.putIfAbsent(executor.getRouteKey(), new ConcurrentHashMap<>());
+        this.keyTypes = this.index.keySet().toArray(new RouteKey[0]);
+    }
+
+    /**
+     * Binds listeners of the route
+     * to the given key.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @param key     key
+     */
+    public void bind(@Nonnull String route,
+                     @Nonnull RouteKey keyType,
+                     @Nonnull Object key) {
+        Map<Object, RoutedListenerExecutor[]> keys = this.index.get(keyType);
+        if (keys == null) return;
+
+        keys.compute(key, (k, bound) -> {
+            List<RoutedListenerExecutor> list = new ArrayList<>(Arrays.asList(bound == null ? EMPTY : bound));
+            for (RoutedListenerExecutor executor : this.executors)
+                if (matches(executor, route, keyType) && !list.contains(executor))
+                    list.add(executor);
+            return list.isEmpty() ? null : list.toArray(EMPTY);
+        });
+    }
+
+    /**
+     * Unbinds listeners of the route
+     * from the given key.
+     *
+     * @param route   route name
+     * @param keyType key type
+     * @param key     key
+     */
+    public void unbind(@Nonnull String route,
+                       @Nonnull RouteKey keyType,
+                       @Nonnull Object key) {
+        Map<Object, RoutedListenerExecutor[]> keys = this.index.get(keyType);
+        if (keys == null) return;
+
+        keys.computeIfPresent(key, (k, bound) -> {
+            List<RoutedListenerExecutor> list = new ArrayList<>(bound.length);
+            for (RoutedListenerExecutor executor : bound)
+                if (!executor.getRoute().equals(route))
+                    list.add(executor);
+            return list.isEmpty() ? null : list.toArray(EMPTY);
+        });
+    }
+
+    /**
+     * Unbinds listeners of all
+     * routes from the given key.
+     *
+     * @param keyType key type
+     * @param key     key
+     */
+    public void unbindAll(@Nonnull RouteKey keyType,
+                          @Nonnull Object key) {
+        Map<Object, RoutedListenerExecutor[]> keys = this.index.get(keyType);
+        if (keys != null) keys.remove(key);
+    }
+
+    /**
+     * Looks up the route keys of the event
+     * and calls the bound listeners.
+     *
+     * @param listener listener
+     * @param event    event
+     */
+    @Override
+    public void execute(@Nonnull Listener listener,
+                        @Nonnull Event event) {
+        if (!this.clazz.isInstance(event))
+            return;
+
+        for (RouteKey keyType : this.keyTypes) {
+            Object key = keyType.keyOf(event);
+            if (key == null) continue;
+
+            RoutedListenerExecutor[] bound = this.index.get(keyType).get(key);
+            if (bound == null) continue;
+
+            for (RoutedListenerExecutor executor : bound)
+                executor.call(event);
+        }
+    }
+
+
+
+    /**
+     * Checks if the routed listener
+     * belongs to the route.
+     *
+     * @param executor routed listener
+     * @param route    route name
+     * @param keyType  key type
+     * @return true if it belongs to the route
+     */
+    private static boolean matches(@Nonnull RoutedListenerExecutor executor,
+                                   @Nonnull String route,
+                                   @Nonnull RouteKey keyType) {
+        return executor.getRoute().equals(route) && executor.getRouteKey() == keyType;
+    }
+}
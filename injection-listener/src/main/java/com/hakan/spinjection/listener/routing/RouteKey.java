@@ -0,0 +1,94 @@
+package com.hakan.spinjection.listener.routing;
+
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.inventory.InventoryInteractEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.world.ChunkEvent;
+import org.bukkit.event.world.WorldEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Route key types. Each type extracts
+ * its key from the event to look up
+ * bound listeners of the route.
+ */
+public enum RouteKey {
+
+    /**
+     * Routes by unique id of the player.
+     */
+    PLAYER {
+        @Override
+        public @Nullable Object keyOf(@Nonnull Event event) {
+            Entity player = null;
+            if (event instanceof PlayerEvent)
+                player = ((PlayerEvent) event).getPlayer();
+            else if (event instanceof EntityEvent)
+                player = ((EntityEvent) event).getEntity();
+            else if (event instanceof InventoryInteractEvent)
+                player = ((InventoryInteractEvent) event).getWhoClicked();
+            else if (event instanceof BlockBreakEvent)
+                player = ((BlockBreakEvent) event).getPlayer();
+            else if (event instanceof BlockPlaceEvent)
+                player = ((BlockPlaceEvent) event).getPlayer();
+
+            return (player instanceof Player) ? player.getUniqueId() : null;
+        }
+    },
+
+    /**
+     * Routes by unique id of the world.
+     */
+    WORLD {
+        @Override
+        public @Nullable Object keyOf(@Nonnull Event event) {
+            if (event instanceof WorldEvent)
+                return ((WorldEvent) event).getWorld().getUID();
+            if (event instanceof PlayerEvent)
+                return ((PlayerEvent) event).getPlayer().getWorld().getUID();
+            if (event instanceof EntityEvent)
+                return ((EntityEvent) event).getEntity().getWorld().getUID();
+            if (event instanceof BlockEvent)
+                return ((BlockEvent) event).getBlock().getWorld().getUID();
+            return null;
+        }
+    },
+
+    /**
+     * Routes by {@link ChunkKey} of the chunk.
+     */
+    CHUNK {
+        @Override
+        public @Nullable Object keyOf(@Nonnull Event event) {
+            if (event instanceof ChunkEvent)
+                return ChunkKey.of(((ChunkEvent) event).getChunk());
+            if (event instanceof PlayerEvent)
+                return ChunkKey.of(((PlayerEvent) event).getPlayer().getLocation());
+            if (event instanceof EntityEvent)
+                return ChunkKey.of(((EntityEvent) event).getEntity().getLocation());
+            if (event instanceof BlockEvent) {
+                Block block = ((BlockEvent) event).getBlock();
+                return ChunkKey.of(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+            }
+            return null;
+        }
+    };
+
+
+    /**
+     * Extracts the route key from the event.
+     *
+     * @param event event
+     * @return route key, null if the event has no key of this type
+     */
+    public abstract @Nullable Object keyOf(@Nonnull Event event);
+}
@@ -0,0 +1,37 @@
+package com.hakan.test.listener;
+
+import com.hakan.injection.annotations.Autowired;
+import com.hakan.injection.annotations.Component;
+import com.hakan.spinjection.listener.annotations.EventListener;
+import com.hakan.spinjection.listener.annotations.RoutedListener;
+import com.hakan.spinjection.listener.routing.ListenerRoutes;
+import com.hakan.test.service.TestService;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+@Component
+public class TestRoutedListener {
+
+    private final TestService service;
+
+    @Autowired
+    public TestRoutedListener(TestService service) {
+        this.service = service;
+    }
+
+    @EventListener
+    public void playerJoin(PlayerJoinEvent event) {
+        ListenerRoutes.bind("arena", event.getPlayer());
+    }
+
+    @EventListener
+    public void playerQuit(PlayerQuitEvent event) {
+        ListenerRoutes.unbindAll(event.getPlayer());
+    }
+
+    @RoutedListener("arena")
+    public void arenaMove(PlayerMoveEvent event) {
+        this.service.sendMessage(event.getPlayer(), "you are in the arena!");
+    }
+}
@@ -0,0 +1,53 @@
+package com.hakan.spinjection.scheduler.annotations;
+
+import com.hakan.spinjection.scheduler.job.CatchUpPolicy;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JobHandler is an annotation that
+ * registers handler methods of the
+ * persistent jobs.
+ * <p>
+ * Handler method must have a single
+ * {@link com.hakan.spinjection.scheduler.job.Job}
+ * parameter. Jobs are scheduled by
+ * {@link com.hakan.spinjection.scheduler.job.JobService}
+ * with the name of the handler.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JobHandler {
+
+    /**
+     * Gets handler name of annotation.
+     *
+     * @return Handler name of annotation.
+     */
+    @Nonnull
+    String value();
+
+    /**
+     * Gets handler async of annotation.
+     * Sync handlers run on the server thread.
+     *
+     * @return Handler async of annotation.
+     */
+    boolean async() default false;
+
+    /**
+     * Gets catch-up policy of annotation.
+     * It decides what happens to the runs
+     * missed while the server was offline.
+     *
+     * @return Catch-up policy of annotation.
+     */
+    @Nonnull
+    CatchUpPolicy catchUp() default CatchUpPolicy.FIRE_ONCE;
+}
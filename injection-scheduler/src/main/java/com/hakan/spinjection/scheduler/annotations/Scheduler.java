@@ -1,5 +1,8 @@
 package com.hakan.spinjection.scheduler.annotations;
 
+import com.hakan.spinjection.scheduler.worker.ExecutorType;
+import com.hakan.spinjection.scheduler.worker.OverlapPolicy;
+
 import javax.annotation.Nonnull;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -31,8 +34,27 @@ public @interface Scheduler {
      */
     long period() default 0L;
 
+    /**
+     * Gets max scheduler period of annotation.
+     * <p>
+     * If it is greater than the period, the
+     * scheduler is adaptive. Its period is
+     * stretched towards the max period as the
+     * tick time rises (below 19.5 tps it starts,
+     * at 15 tps it reaches the max period) and
+     * restored when the server recovers.
+     *
+     * @return Max scheduler period of annotation, 0 if it is not adaptive.
+     */
+    long maxPeriod() default 0L;
+
     /**
      * Gets scheduler async of annotation.
+     * <p>
+     * Async schedulers run on a dedicated timer
+     * with millisecond precision. Sync schedulers
+     * run on the server thread and are rounded
+     * to ticks (50 milliseconds).
      *
      * @return Scheduler async of annotation.
      */
@@ -45,4 +67,104 @@ public @interface Scheduler {
      */
     @Nonnull
     TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Gets spread status of annotation.
+     * <p>
+     * If it is true, sync schedulers with the
+     * same period are spread evenly across the
+     * ticks of the period instead of running
+     * in the same tick.
+     *
+     * @return Spread status of annotation.
+     */
+    boolean spread() default true;
+
+    /**
+     * Gets executor type of annotation.
+     * It is only used by async schedulers.
+     *
+     * @return Executor type of annotation.
+     */
+    @Nonnull
+    ExecutorType executor() default ExecutorType.TIMER;
+
+    /**
+     * Gets max concurrent run count of annotation.
+     * Firings over the limit are skipped.
+     * 0 means there is no limit.
+     *
+     * @return Max concurrent run count of annotation.
+     */
+    int concurrency() default 0;
+
+    /**
+     * Gets max queued run count of annotation.
+     * It is the count of the async runs which
+     * can wait for a thread of the executor,
+     * runs over the limit are skipped.
+     * 0 means there is no limit.
+     *
+     * @return Max queued run count of annotation.
+     */
+    int queueSize() default 16;
+
+    /**
+     * Gets overlap policy of annotation.
+     * It decides what happens when an async
+     * scheduler fires while its previous
+     * run is in progress.
+     *
+     * @return Overlap policy of annotation.
+     */
+    @Nonnull
+    OverlapPolicy overlap() default OverlapPolicy.ALLOW;
+
+    /**
+     * Gets cron expression of annotation.
+     * If it is set, the scheduler fires at the
+     * times of the expression instead of the
+     * delay and the period.
+     * <p>
+     * Expression has six fields, "second minute
+     * hour day-of-month month day-of-week", for
+     * example "0 0 4 * * *" fires every day at 04:00.
+     *
+     * @return Cron expression of annotation, empty if not used.
+     */
+    @Nonnull
+    String cron() default "";
+
+    /**
+     * Gets time zone id of annotation,
+     * which the cron expression is
+     * evaluated in (e.g. "Europe/Istanbul").
+     *
+     * @return Time zone id of annotation, empty for the system zone.
+     */
+    @Nonnull
+    String zone() default "";
+
+    /**
+     * Gets singleton status of annotation.
+     * <p>
+     * If it is true, the scheduler acquires a
+     * cluster-wide lease from the provider of
+     * {@link com.hakan.spinjection.scheduler.lease.SchedulerLeases}
+     * before every run, so only one node runs it.
+     * Singleton schedulers must be async.
+     *
+     * @return Singleton status of annotation.
+     */
+    boolean singleton() default false;
+
+    /**
+     * Gets lease time to live of annotation
+     * in the time unit of the annotation.
+     * 0 means twice the period, or one
+     * minute if there is no period.
+     *
+     * @return Lease time to live of annotation.
+     */
+    long leaseTtl() default 0L;
 }
@@ -0,0 +1,65 @@
+package com.hakan.spinjection.scheduler.annotations;
+
+import javax.annotation.Nonnull;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SlicedScheduler is an annotation that
+ * registers per-element scheduler methods.
+ * <p>
+ * Every period, the elements are taken from
+ * the source method and the annotated method
+ * is called for each element on the server
+ * thread, in slices under a per-tick budget.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SlicedScheduler {
+
+    /**
+     * Gets source method name of annotation.
+     * Source method must be in the same class,
+     * have no parameters and return a collection.
+     *
+     * @return Source method name of annotation.
+     */
+    @Nonnull
+    String source();
+
+    /**
+     * Gets scheduler delay of annotation.
+     *
+     * @return Scheduler delay of annotation.
+     */
+    long delay() default 0L;
+
+    /**
+     * Gets a scheduler period of annotation.
+     *
+     * @return Scheduler period of annotation.
+     */
+    long period();
+
+    /**
+     * Gets scheduler time unit of annotation.
+     *
+     * @return Scheduler time unit of annotation.
+     */
+    @Nonnull
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Gets per-tick time budget of annotation
+     * as microseconds. At least one element
+     * is processed in every tick.
+     *
+     * @return Per-tick time budget of annotation.
+     */
+    long budget() default 2000L;
+}
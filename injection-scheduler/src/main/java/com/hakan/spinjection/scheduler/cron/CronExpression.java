@@ -0,0 +1,334 @@
+package com.hakan.spinjection.scheduler.cron;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CronExpression is a parsed cron expression
+ * which computes the next fire time directly
+ * by jumping between the allowed field values.
+ * <p>
+ * Expressions have six fields, "second minute
+ * hour day-of-month month day-of-week". Five
+ * field expressions are accepted too and fire
+ * at the first second of the minute. Fields
+ * support '*', '?', lists, ranges, steps and
+ * month/day names.
+ * <p>
+ * Fire times are matched on the wall clock of
+ * the zone. A time that is skipped by a
+ * daylight-saving gap fires right after the
+ * gap, and a time that repeats in an overlap
+ * fires only once.
+ */
+public class CronExpression {
+
+    private static final List<String> MONTHS = Arrays.asList(
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC");
+    private static final List<String> DAYS = Arrays.asList(
+            "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT");
+    private static final int MAX_SEARCH_YEARS = 8;
+
+    /**
+     * Parses the cron expression.
+     *
+     * @param expression cron expression
+     * @return parsed expression
+     */
+    public static @Nonnull CronExpression parse(@Nonnull String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length == 5)
+            fields = ("0 " + expression.trim()).split("\\s+");
+        if (fields.length != 6)
+            throw new IllegalArgumentException("cron expression must have 5 or 6 fields: " + expression + "!");
+
+        return new CronExpression(expression,
+                parseField(fields[0], 0, 59, null),
+                parseField(fields[1], 0, 59, null),
+                parseField(fields[2], 0, 23, null),
+                parseField(fields[3], 1, 31, null),
+                parseField(fields[4], 1, 12, MONTHS),
+                parseDaysOfWeek(fields[5]),
+                isWildcard(fields[3]),
+                isWildcard(fields[5]));
+    }
+
+
+
+    private final String expression;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    /**
+     * Constructor of CronExpression.
+     */
+    private CronExpression(@Nonnull String expression,
+                           long seconds,
+                           long minutes,
+                           long hours,
+                           long daysOfMonth,
+                           long months,
+                           long daysOfWeek,
+                           boolean anyDayOfMonth,
+                           boolean anyDayOfWeek) {
+        this.expression = expression;
+        this.seconds = seconds;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.anyDayOfMonth = anyDayOfMonth;
+        this.anyDayOfWeek = anyDayOfWeek;
+    }
+
+    /**
+     * Gets the expression text.
+     *
+     * @return expression
+     */
+    public @Nonnull String getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Computes the first fire time
+     * which is after the given time.
+     *
+     * @param after time to search after
+     * @return next fire time, null if the
+     * expression never fires again
+     */
+    public @Nullable ZonedDateTime next(@Nonnull ZonedDateTime after) {
+        LocalDateTime local = after.toLocalDateTime();
+
+        while (true) {
+            local = this.nextLocal(local, after.getYear() + MAX_SEARCH_YEARS);
+            if (local == null)
+                return null;
+
+            ZoneOffsetTransition gap = null;
+            if (after.getZone().getRules().getValidOffsets(local).isEmpty())
+                gap = after.getZone().getRules().getTransition(local);
+
+            ZonedDateTime candidate = (gap != null) ?
+                    gap.getInstant().atZone(after.getZone()) :
+                    ZonedDateTime.ofLocal(local, after.getZone(), null);
+            if (candidate.isAfter(after))
+                return candidate;
+
+            candidate = candidate.withLaterOffsetAtOverlap();
+            if (candidate.isAfter(after))
+                return candidate;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nonnull String toString() {
+        return this.expression;
+    }
+
+
+
+    /**
+     * Finds the first wall clock time which
+     * matches the expression and is after
+     * the given time.
+     *
+     * @param after   time to search after
+     * @param maxYear last year to search in
+     * @return next matching time, null if not found
+     */
+    private @Nullable LocalDateTime nextLocal(@Nonnull LocalDateTime after, int maxYear) {
+        LocalDateTime time = after.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+
+        while (time.getYear() <= maxYear) {
+            int month = nextBit(this.months, time.getMonthValue());
+            if (month != time.getMonthValue()) {
+                time = (month == -1) ?
+                        time.withDayOfMonth(1).toLocalDate().atStartOfDay().withMonth(1).plusYears(1) :
+                        time.withDayOfMonth(1).toLocalDate().atStartOfDay().withMonth(month);
+                continue;
+            }
+
+            if (!this.matchesDay(time)) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+
+            int hour = nextBit(this.hours, time.getHour());
+            if (hour != time.getHour()) {
+                time = (hour == -1) ?
+                        time.toLocalDate().plusDays(1).atStartOfDay() :
+                        time.toLocalDate().atTime(hour, 0);
+                continue;
+            }
+
+            int minute = nextBit(this.minutes, time.getMinute());
+            if (minute != time.getMinute()) {
+                time = (minute == -1) ?
+                        time.truncatedTo(ChronoUnit.HOURS).plusHours(1) :
+                        time.truncatedTo(ChronoUnit.HOURS).withMinute(minute);
+                continue;
+            }
+
+            int second = nextBit(this.seconds, time.getSecond());
+            if (second != time.getSecond()) {
+                time = (second == -1) ?
+                        time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1) :
+                        time.withSecond(second);
+                continue;
+            }
+
+            return time;
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if the day of the time matches
+     * the day-of-month and day-of-week fields.
+     * If both of them are restricted, matching
+     * one of them is enough.
+     *
+     * @param time time
+     * @return true if it matches
+     */
+    private boolean matchesDay(@Nonnull LocalDateTime time) {
+        boolean dayOfMonth = (this.daysOfMonth & (1L << time.getDayOfMonth())) != 0;
+        boolean dayOfWeek = (this.daysOfWeek & (1L << (time.getDayOfWeek().getValue() % 7))) != 0;
+
+        if (this.anyDayOfMonth)
+            return dayOfWeek;
+        if (this.anyDayOfWeek)
+            return dayOfMonth;
+        return dayOfMonth || dayOfWeek;
+    }
+
+    /**
+     * Finds the first set bit which
+     * is greater than or equal to the index.
+     *
+     * @param bits  bits
+     * @param index start index
+     * @return bit index, -1 if not found
+     */
+    private static int nextBit(long bits, int index) {
+        long remaining = bits & (-1L << index);
+        return (remaining == 0) ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Checks if the field allows every value.
+     *
+     * @param field field
+     * @return true if wildcard
+     */
+    private static boolean isWildcard(@Nonnull String field) {
+        return field.equals("*") || field.equals("?");
+    }
+
+    /**
+     * Parses the day-of-week field.
+     * Both 0 and 7 are sunday.
+     *
+     * @param field field
+     * @return bits
+     */
+    private static long parseDaysOfWeek(@Nonnull String field) {
+        long bits = parseField(field, 0, 7, DAYS);
+        return ((bits & (1L << 7)) != 0) ? (bits | 1L) & ~(1L << 7) : bits;
+    }
+
+    /**
+     * Parses the field to a bit set
+     * of its allowed values.
+     *
+     * @param field field
+     * @param min   min value
+     * @param max   max value
+     * @param names value names, null if there is no name
+     * @return bits
+     */
+    private static long parseField(@Nonnull String field,
+                                   int min,
+                                   int max,
+                                   @Nullable List<String> names) {
+        long bits = 0;
+
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash != -1) {
+                step = parseValue(part.substring(slash + 1), 1, Integer.MAX_VALUE, null);
+                part = part.substring(0, slash);
+            }
+
+            int from;
+            int to;
+            if (part.equals("*") || part.equals("?")) {
+                from = min;
+                to = max;
+            } else if (part.indexOf('-') != -1) {
+                from = parseValue(part.substring(0, part.indexOf('-')), min, max, names);
+                to = parseValue(part.substring(part.indexOf('-') + 1), min, max, names);
+            } else {
+                from = parseValue(part, min, max, names);
+                to = (slash != -1) ? max : from;
+            }
+
+            if (from > to)
+                throw new IllegalArgumentException("cron range " + part + " is reversed!");
+
+            for (int value = from; value <= to; value += step)
+                bits |= 1L << value;
+        }
+
+        return bits;
+    }
+
+    /**
+     * Parses a single value of a field.
+     *
+     * @param value value
+     * @param min   min value
+     * @param max   max value
+     * @param names value names, null if there is no name
+     * @return parsed value
+     */
+    private static int parseValue(@Nonnull String value,
+                                  int min,
+                                  int max,
+                                  @Nullable List<String> names) {
+        int parsed;
+        if (names != null && names.contains(value.toUpperCase())) {
+            parsed = names.indexOf(value.toUpperCase()) + min;
+        } else {
+            try {
+                parsed = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("cron value " + value + " is not valid!");
+            }
+        }
+
+        if (parsed < min || parsed > max)
+            throw new IllegalArgumentException("cron value " + value + " must be between " + min + " and " + max + "!");
+        return parsed;
+    }
+}
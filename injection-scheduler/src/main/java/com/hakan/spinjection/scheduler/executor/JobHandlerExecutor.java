@@ -0,0 +1,146 @@
+package com.hakan.spinjection.scheduler.executor;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.scheduler.annotations.JobHandler;
+import com.hakan.spinjection.scheduler.job.CatchUpPolicy;
+import com.hakan.spinjection.scheduler.job.Job;
+import com.hakan.spinjection.scheduler.job.JobService;
+import com.hakan.spinjection.scheduler.timer.TickScheduler;
+import com.hakan.spinjection.scheduler.worker.ExecutorType;
+import com.hakan.spinjection.scheduler.worker.SchedulerWorkers;
+import lombok.SneakyThrows;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+
+/**
+ * JobHandlerExecutor is a class that
+ * executes handler methods of the
+ * persistent jobs.
+ */
+public class JobHandlerExecutor implements SpigotExecutor {
+
+    private Object instance;
+    private final Plugin plugin;
+    private final Method method;
+    private final JobService service;
+    private final JobHandler handler;
+
+    /**
+     * Constructor of JobHandlerExecutor.
+     *
+     * @param plugin  plugin
+     * @param method  method
+     * @param service job service
+     */
+    public JobHandlerExecutor(@Nonnull Plugin plugin,
+                              @Nonnull Method method,
+                              @Nonnull JobService service) {
+        this.plugin = plugin;
+        this.method = method;
+        this.service = service;
+        this.handler = method.getAnnotation(JobHandler.class);
+    }
+
+    /**
+     * Gets the instance of the method
+     * that is annotated with {@link JobHandler}.
+     *
+     * @return instance
+     */
+    @Override
+    public @Nullable Object getInstance() {
+        return this.instance;
+    }
+
+    /**
+     * Gets the declaring class of the method
+     * that is annotated with {@link JobHandler}.
+     *
+     * @return declaring class
+     */
+    @Override
+    public @Nonnull Class<?> getDeclaringClass() {
+        return this.method.getDeclaringClass();
+    }
+
+    /**
+     * Gets the name of the handler.
+     *
+     * @return handler name
+     */
+    public @Nonnull String getName() {
+        return this.handler.value();
+    }
+
+    /**
+     * Gets the catch-up policy of the handler.
+     *
+     * @return catch-up policy
+     */
+    public @Nonnull CatchUpPolicy getCatchUp() {
+        return this.handler.catchUp();
+    }
+
+    /**
+     * Registers the handler to the job service.
+     *
+     * @param bootstrap injector
+     * @param instance  instance
+     */
+    @Override
+    public void execute(@Nonnull SpigotBootstrap bootstrap,
+                        @Nonnull Object instance) {
+        this.instance = instance;
+        this.service.register(this);
+    }
+
+    /**
+     * Runs the handler for the job. Async handlers
+     * are handed off to the workers of the timer,
+     * so the timer thread which fired the job is
+     * not blocked. Sync handlers are moved to the
+     * server thread.
+     *
+     * @param job   job
+     * @param times run count
+     * @param after callback which runs after the runs
+     */
+    public void fire(@Nonnull Job job, int times, @Nonnull Runnable after) {
+        Runnable runnable = () -> {
+            try {
+                for (int i = 0; i < times; i++)
+                    this.invoke(job);
+            } finally {
+                after.run();
+            }
+        };
+
+        if (this.handler.async())
+            SchedulerWorkers.get(ExecutorType.TIMER).execute(runnable);
+        else
+            TickScheduler.schedule(this.plugin, runnable, 0, 0);
+    }
+
+
+
+    /**
+     * Executes the method which is
+     * annotated with {@link JobHandler}.
+     *
+     * @param job job
+     */
+    @SneakyThrows
+    private void invoke(@Nonnull Job job) {
+        try {
+            this.method.invoke(this.instance, job);
+        } catch (InvocationTargetException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "job handler " + this.handler.value() + " threw an exception", e.getCause());
+        }
+    }
+}
@@ -2,27 +2,94 @@ package com.hakan.spinjection.scheduler.executor;
 
 import com.hakan.spinjection.SpigotBootstrap;
 import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.metrics.SchedulerMetrics;
+import com.hakan.spinjection.metrics.TimerMetrics;
 import com.hakan.spinjection.scheduler.annotations.Scheduler;
-import lombok.SneakyThrows;
+import com.hakan.spinjection.scheduler.cron.CronExpression;
+import com.hakan.spinjection.scheduler.lease.LeaseProvider;
+import com.hakan.spinjection.scheduler.lease.SchedulerLeases;
+import com.hakan.spinjection.scheduler.timer.SchedulerTimer;
+import com.hakan.spinjection.scheduler.timer.TickScheduler;
+import com.hakan.spinjection.scheduler.worker.ExecutorType;
+import com.hakan.spinjection.scheduler.worker.OverlapPolicy;
+import com.hakan.spinjection.scheduler.worker.SchedulerWorkers;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 
 /**
  * SchedulerRunnable is a class that
  * executes scheduler method.
+ * <p>
+ * Sync schedulers run on {@link TickScheduler}
+ * with tick precision. Async
+ * schedulers are fired by {@link SchedulerTimer}
+ * with millisecond precision and run on the
+ * executor of their {@link ExecutorType}, so
+ * the timer threads only fire them.
+ * Cron schedulers sleep on {@link SchedulerTimer}
+ * until their next fire time.
+ * <p>
+ * It is still a {@link BukkitRunnable}, so it
+ * can be run through the Bukkit scheduler too.
  */
 public class SchedulerExecutor extends BukkitRunnable implements SpigotExecutor {
 
+    private static final int SLOW_WARNING_STREAK = 5;
+    private static final long SLOW_WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+    private static final long MAX_CRON_SLEEP = TimeUnit.HOURS.toNanos(1);
+    private static final int MAX_MISSED_CRON_FIRES = 100_000;
+
+
     private Object instance;
     private final Plugin plugin;
     private final Method method;
     private final long delay;
     private final long period;
+    private final long maxPeriod;
     private final boolean async;
+    private final boolean spread;
+    private final int concurrency;
+    private final int queueSize;
+    private final OverlapPolicy overlap;
+    private final CronExpression cron;
+    private final ZoneId zone;
+    private final boolean singleton;
+    private final long leaseTtl;
+    private final ExecutorService worker;
+    private final AtomicLong runs;
+    private final TimerMetrics metrics;
+    private int inFlight;
+    private int waiting;
+    private boolean pending;
+    private long pendingPlanned;
+    private long skipped;
+    private long queued;
+    private long leaseMisses;
+    private boolean leaseWarned;
+    private int slowStreak;
+    private long lastSlowWarning;
+    private long phase;
+    private TickScheduler.Task tickTask;
+    private ScheduledFuture<?> timerTask;
+    private ZonedDateTime nextFire;
+    private long missedFires;
+    private volatile long effectivePeriod;
+    private boolean cancelled;
 
     /**
      * Constructor of SchedulerRunnable.
@@ -48,8 +115,22 @@ public class SchedulerExecutor extends BukkitRunnable implements SpigotExecutor
         this.plugin = plugin;
         this.method = method;
         this.async = scheduler.async();
-        this.delay = scheduler.timeUnit().toMillis(scheduler.delay()) / 50;
-        this.period = scheduler.timeUnit().toMillis(scheduler.period()) / 50;
+        this.spread = scheduler.spread();
+        this.delay = scheduler.timeUnit().toNanos(scheduler.delay());
+        this.period = scheduler.timeUnit().toNanos(scheduler.period());
+        this.maxPeriod = Math.max(this.period, scheduler.timeUnit().toNanos(scheduler.maxPeriod()));
+        this.effectivePeriod = this.period;
+        this.concurrency = scheduler.concurrency();
+        this.queueSize = scheduler.queueSize();
+        this.worker = (this.async) ? SchedulerWorkers.get(scheduler.executor()) : null;
+        this.overlap = scheduler.overlap();
+        this.cron = (scheduler.cron().isEmpty()) ? null : CronExpression.parse(scheduler.cron());
+        this.zone = (scheduler.zone().isEmpty()) ? ZoneId.systemDefault() : ZoneId.of(scheduler.zone());
+        this.singleton = scheduler.singleton();
+        this.leaseTtl = (scheduler.leaseTtl() != 0) ? scheduler.timeUnit().toNanos(scheduler.leaseTtl()) :
+                (this.period != 0) ? this.period * 2 : TimeUnit.MINUTES.toNanos(1);
+        this.runs = new AtomicLong();
+        this.metrics = SchedulerMetrics.register(SchedulerExecutors.nameOf(method));
     }
 
     /**
@@ -74,6 +155,231 @@ public class SchedulerExecutor extends BukkitRunnable implements SpigotExecutor
         return this.method.getDeclaringClass();
     }
 
+    /**
+     * Gets the method that is
+     * annotated with {@link Scheduler}.
+     *
+     * @return method
+     */
+    public @Nonnull Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Gets the lateness and duration
+     * metrics of the scheduler.
+     *
+     * @return timer metrics
+     */
+    public @Nonnull TimerMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Checks if the scheduler is async.
+     *
+     * @return true if async
+     */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Checks if the scheduler can be
+     * spread across the ticks of its period.
+     *
+     * @return true if it can be spread
+     */
+    public boolean isSpread() {
+        return this.spread;
+    }
+
+    /**
+     * Gets the cron expression of the scheduler.
+     *
+     * @return cron expression, null if it is not a cron scheduler
+     */
+    public @Nullable CronExpression getCron() {
+        return this.cron;
+    }
+
+    /**
+     * Gets the next fire time
+     * of the cron scheduler.
+     *
+     * @return next fire time, null if it
+     * will not fire again
+     */
+    public synchronized @Nullable ZonedDateTime getNextFire() {
+        return this.nextFire;
+    }
+
+    /**
+     * Gets the count of the fire times of the
+     * cron scheduler which are passed while it
+     * was late, for example while the server
+     * was stopped or not responding. They are
+     * not fired later.
+     *
+     * @return missed fire count
+     */
+    public synchronized long getMissedFires() {
+        return this.missedFires;
+    }
+
+    /**
+     * Gets the period of the scheduler.
+     *
+     * @param timeUnit time unit
+     * @return period
+     */
+    public long getPeriod(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Checks if the period of the scheduler
+     * adapts to the load of the server.
+     *
+     * @return true if adaptive
+     */
+    public boolean isAdaptive() {
+        return this.maxPeriod > this.period;
+    }
+
+    /**
+     * Gets the current effective period
+     * of the scheduler. It is the period
+     * stretched by the load if the
+     * scheduler is adaptive.
+     *
+     * @param timeUnit time unit
+     * @return effective period
+     */
+    public long getEffectivePeriod(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.effectivePeriod, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the period of the sync
+     * scheduler as ticks.
+     *
+     * @return period ticks, 0 if it runs once
+     */
+    public long getPeriodTicks() {
+        return (this.period == 0) ? 0 : ticksOf(this.period);
+    }
+
+    /**
+     * Gets the phase of the sync scheduler.
+     *
+     * @return phase as ticks
+     */
+    public long getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Sets the phase of the sync scheduler.
+     * Phase is added to the delay, so schedulers
+     * with the same period can run in different
+     * ticks. It must be set before the start.
+     *
+     * @param phase phase as ticks
+     */
+    public void setPhase(long phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Gets the count of the runs
+     * which are currently in progress.
+     *
+     * @return in-flight run count
+     */
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * Gets the count of the runs which
+     * are waiting for a thread of the
+     * executor of the scheduler.
+     *
+     * @return waiting run count
+     */
+    public synchronized int getWaiting() {
+        return this.waiting;
+    }
+
+    /**
+     * Gets the count of the
+     * started runs.
+     *
+     * @return run count
+     */
+    public long getRuns() {
+        return this.runs.get();
+    }
+
+    /**
+     * Gets the count of the firings which are
+     * skipped by the overlap policy, the
+     * concurrency limit or the queue limit.
+     *
+     * @return skipped firing count
+     */
+    public synchronized long getSkipped() {
+        return this.skipped;
+    }
+
+    /**
+     * Gets the count of the firings which are
+     * queued by the overlap policy.
+     *
+     * @return queued firing count
+     */
+    public synchronized long getQueued() {
+        return this.queued;
+    }
+
+    /**
+     * Gets the count of the firings which are
+     * skipped since the lease of the singleton
+     * scheduler is held by another node.
+     *
+     * @return lease miss count
+     */
+    public synchronized long getLeaseMisses() {
+        return this.leaseMisses;
+    }
+
+    /**
+     * Gets the count of the last consecutive
+     * runs which took longer than the period.
+     *
+     * @return slow run streak
+     */
+    public synchronized int getSlowStreak() {
+        return this.slowStreak;
+    }
+
+    /**
+     * Checks if the scheduler is cancelled.
+     *
+     * @return true if cancelled
+     */
+    @Override
+    public synchronized boolean isCancelled() {
+        if (this.cancelled)
+            return true;
+        if (this.timerTask != null)
+            return this.timerTask.isCancelled();
+        if (this.tickTask != null)
+            return this.tickTask.isCancelled();
+        return true;
+    }
+
 
 
     /**
@@ -83,28 +389,425 @@ public class SchedulerExecutor extends BukkitRunnable implements SpigotExecutor
      * @param instance  instance
      */
     @Override
-    public void execute(@Nonnull SpigotBootstrap bootstrap,
-                        @Nonnull Object instance) {
+    public synchronized void execute(@Nonnull SpigotBootstrap bootstrap,
+                                     @Nonnull Object instance) {
         this.instance = instance;
+        SchedulerExecutors.register(this);
+
+        if (this.cron != null) {
+            this.nextFire = this.cron.next(ZonedDateTime.now(this.zone));
+            this.sleepUntilFire();
+            return;
+        }
 
-        if (this.period == 0 && this.async) {
-            this.runTaskLaterAsynchronously(this.plugin, this.delay);
-        } else if (this.period == 0) {
-            this.runTaskLater(this.plugin, this.delay);
-        } else if (this.async) {
-            this.runTaskTimerAsynchronously(this.plugin, this.delay, this.period);
-        } else {
-            this.runTaskTimer(this.plugin, this.delay, this.period);
+        if (this.isAdaptive())
+            TickScheduler.start(this.plugin);
+
+        if (this.async) {
+            this.metrics.plan(System.nanoTime() + this.delay);
+            this.timerTask = (this.period == 0 || this.isAdaptive()) ?
+                    SchedulerTimer.schedule(this::fireTimer, this.delay, TimeUnit.NANOSECONDS) :
+                    SchedulerTimer.scheduleAtFixedRate(this::fireAtRate, this.delay, this.period, TimeUnit.NANOSECONDS);
+            return;
         }
+
+        long delayTicks = TimeUnit.NANOSECONDS.toMillis(this.delay) / 50 + this.phase;
+        this.metrics.plan(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayTicks * 50));
+        this.tickTask = TickScheduler.schedule(this.plugin, this, delayTicks, this.getPeriodTicks());
     }
 
     /**
-     * Executes the method which is
-     * annotated with {@link Scheduler}.
+     * Cancels the scheduler, and its Bukkit
+     * task if it is run through the Bukkit
+     * scheduler.
+     */
+    @Override
+    public synchronized void cancel() {
+        this.cancelled = true;
+        if (this.timerTask != null)
+            this.timerTask.cancel(false);
+        if (this.tickTask != null)
+            this.tickTask.cancel();
+
+        try {
+            super.cancel();
+        } catch (IllegalStateException ignored) {
+            // not scheduled through the Bukkit scheduler
+        }
+
+        LeaseProvider provider = SchedulerLeases.getProvider();
+        if (this.singleton && provider != null) {
+            try {
+                provider.release(SchedulerExecutors.nameOf(this.method), SchedulerLeases.getNodeId());
+            } catch (Exception e) {
+                this.plugin.getLogger().log(Level.WARNING, "scheduler lease couldn't be released", e);
+            }
+        }
+    }
+
+    /**
+     * Fires the sync scheduler on the tick of
+     * {@link TickScheduler}. The period of the
+     * adaptive scheduler is updated first.
      */
     @Override
-    @SneakyThrows
     public void run() {
-        this.method.invoke(this.instance);
+        long period = 0;
+        if (this.period != 0) {
+            long ticks = ticksOf((this.isAdaptive()) ? this.adaptPeriod() : this.period);
+            if (this.isAdaptive() && this.tickTask != null)
+                this.tickTask.setPeriod(ticks);
+            period = TimeUnit.MILLISECONDS.toNanos(ticks * 50);
+        }
+
+        this.fire(this.metrics.fire(System.nanoTime(), period));
+    }
+
+
+
+    /**
+     * Computes the effective period of
+     * the adaptive scheduler by the load.
+     *
+     * @return effective period as nanoseconds
+     */
+    private long adaptPeriod() {
+        long adapted = this.period + (long) ((this.maxPeriod - this.period) * TickScheduler.getLoad());
+        this.effectivePeriod = adapted;
+        return adapted;
+    }
+
+    /**
+     * Fires the async scheduler which runs once
+     * or adapts its period. The next firing of
+     * the adaptive scheduler is scheduled by
+     * its effective period.
+     */
+    private void fireTimer() {
+        long planned;
+        synchronized (this) {
+            if (this.cancelled)
+                return;
+
+            planned = this.metrics.getNextFire();
+            if (this.period != 0) {
+                long period = this.adaptPeriod();
+                this.metrics.plan(System.nanoTime() + period);
+                this.timerTask = SchedulerTimer.schedule(this::fireTimer, period, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        this.fire(planned);
+    }
+
+    /**
+     * Fires the async scheduler which runs at
+     * a fixed rate on the timer.
+     */
+    private void fireAtRate() {
+        this.fire(this.metrics.fireAtRate(System.nanoTime(), this.period));
+    }
+
+    /**
+     * Fires the scheduler. The firing is skipped
+     * or queued by the overlap policy and the
+     * concurrency limit. Otherwise, the method is
+     * executed on the worker of the scheduler.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     */
+    private void fire(long planned) {
+        synchronized (this) {
+            if (this.cancelled)
+                return;
+        }
+
+        if (!this.plugin.isEnabled()) {
+            this.cancel();
+            return;
+        }
+
+        if (this.tryStart(planned))
+            this.dispatch(planned);
+    }
+
+    /**
+     * Converts the nanoseconds to ticks.
+     *
+     * @param nanos nanoseconds
+     * @return ticks, at least 1
+     */
+    private static long ticksOf(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos) / 50);
+    }
+
+    /**
+     * Sleeps on the timer until the next fire time
+     * of the cron scheduler. Long sleeps are split
+     * so changes of the system clock are noticed.
+     */
+    private synchronized void sleepUntilFire() {
+        if (this.cancelled || this.nextFire == null)
+            return;
+
+        long remaining = Duration.between(Instant.now(), this.nextFire.toInstant()).toNanos();
+        this.timerTask = SchedulerTimer.schedule(this::wakeUp, Math.min(remaining, MAX_CRON_SLEEP), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Wakes up the cron scheduler. If the fire
+     * time is reached, it fires the scheduler
+     * and computes the next fire time.
+     * <p>
+     * Fire times which are already passed
+     * since the reached one are fired once
+     * and counted as missed.
+     */
+    private void wakeUp() {
+        long planned;
+        long missed = 0;
+        synchronized (this) {
+            if (this.cancelled || this.nextFire == null)
+                return;
+            ZonedDateTime now = ZonedDateTime.now(this.zone);
+            if (now.isBefore(this.nextFire)) {
+                this.sleepUntilFire();
+                return;
+            }
+
+            planned = System.nanoTime() - Duration.between(this.nextFire.toInstant(), now.toInstant()).toNanos();
+
+            ZonedDateTime next = this.cron.next(this.nextFire);
+            while (next != null && !next.isAfter(now) && missed < MAX_MISSED_CRON_FIRES) {
+                next = this.cron.next(next);
+                missed++;
+            }
+            if (next != null && !next.isAfter(now))
+                next = this.cron.next(now);
+
+            this.nextFire = next;
+            this.missedFires += missed;
+            this.sleepUntilFire();
+        }
+
+        if (missed > 0) {
+            this.metrics.addMissed(missed);
+            this.plugin.getLogger().warning("cron scheduler " + SchedulerExecutors.nameOf(this.method)
+                    + " missed " + missed + " fire times, it is fired once");
+        }
+
+        if (this.async)
+            this.fire(planned);
+        else
+            TickScheduler.schedule(this.plugin, () -> this.fire(planned), 0, 0);
+    }
+
+    /**
+     * Executes the method on the worker of the
+     * scheduler, or on the current thread if
+     * the scheduler has no worker.
+     * <p>
+     * The run is rejected and skipped if the
+     * queue limit of the scheduler is reached,
+     * or the worker rejects it.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     */
+    private void dispatch(long planned) {
+        if (this.worker == null) {
+            this.invoke(planned);
+            return;
+        }
+
+        synchronized (this) {
+            if (this.queueSize > 0 && this.waiting >= this.queueSize) {
+                this.reject();
+                return;
+            }
+            this.waiting++;
+        }
+
+        try {
+            this.worker.execute(() -> {
+                synchronized (this) {
+                    this.waiting--;
+                }
+                this.invoke(planned);
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                this.waiting--;
+                this.reject();
+            }
+        }
+    }
+
+    /**
+     * Rejects a run which couldn't be
+     * handed off to the worker.
+     */
+    private synchronized void reject() {
+        this.inFlight--;
+        this.skipped++;
+        this.metrics.addSkipped(1);
+    }
+
+    /**
+     * Executes the method which is annotated
+     * with {@link Scheduler}, and then the
+     * queued runs one by one on the same thread.
+     * <p>
+     * Exceptions are logged instead of being
+     * thrown, so the next runs are not cancelled.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     */
+    private void invoke(long planned) {
+        Long next = planned;
+        while (next != null) {
+            try {
+                this.invokeOnce(next);
+            } catch (IllegalAccessException | RuntimeException e) {
+                this.plugin.getLogger().log(Level.SEVERE, "scheduler " + this.method.getName() + " couldn't be run", e);
+            }
+            next = this.finish();
+        }
+    }
+
+    /**
+     * Executes the method once, if the lease
+     * of the singleton scheduler is acquired.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    private void invokeOnce(long planned) throws IllegalAccessException {
+        long token = (this.singleton) ? this.acquireLease() : -1;
+        if (this.singleton && token < 0)
+            return;
+
+        this.runs.incrementAndGet();
+        SchedulerLeases.setCurrentToken(token);
+
+        long start = System.nanoTime();
+        try {
+            this.method.invoke(this.instance);
+        } catch (InvocationTargetException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "scheduler " + this.method.getName() + " threw an exception", e.getCause());
+        } finally {
+            long end = System.nanoTime();
+            SchedulerLeases.setCurrentToken(-1);
+            this.metrics.record(planned, start, end);
+            this.recordDuration(end - start);
+        }
+    }
+
+    /**
+     * Acquires the cluster-wide lease
+     * of the singleton scheduler.
+     *
+     * @return fencing token, -1 if the lease
+     * couldn't be acquired
+     */
+    private long acquireLease() {
+        LeaseProvider provider = SchedulerLeases.getProvider();
+        if (provider == null) {
+            synchronized (this) {
+                if (!this.leaseWarned)
+                    this.plugin.getLogger().warning("singleton scheduler " + SchedulerExecutors.nameOf(this.method)
+                            + " is skipped, since there is no lease provider");
+                this.leaseWarned = true;
+                this.leaseMisses++;
+            }
+            return -1;
+        }
+
+        long token;
+        try {
+            token = provider.acquire(SchedulerExecutors.nameOf(this.method), SchedulerLeases.getNodeId(),
+                    this.leaseTtl, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            this.plugin.getLogger().log(Level.WARNING, "scheduler lease couldn't be acquired", e);
+            token = -1;
+        }
+
+        if (token < 0) {
+            synchronized (this) {
+                this.leaseMisses++;
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Decides if a firing can start a run.
+     *
+     * @param planned planned fire time as {@link System#nanoTime()}
+     * @return true if it can start
+     */
+    private synchronized boolean tryStart(long planned) {
+        if (this.overlap != OverlapPolicy.ALLOW && this.inFlight > 0) {
+            if (this.overlap == OverlapPolicy.QUEUE && !this.pending) {
+                this.pending = true;
+                this.pendingPlanned = planned;
+                this.queued++;
+            } else {
+                this.skipped++;
+                this.metrics.addSkipped(1);
+            }
+            return false;
+        }
+
+        if (this.concurrency > 0 && this.inFlight >= this.concurrency) {
+            this.skipped++;
+            this.metrics.addSkipped(1);
+            return false;
+        }
+
+        this.inFlight++;
+        return true;
+    }
+
+    /**
+     * Finishes a run and takes
+     * the queued run if there is.
+     *
+     * @return planned fire time of the queued run, null if there is not
+     */
+    private synchronized @Nullable Long finish() {
+        if (this.pending) {
+            this.pending = false;
+            return this.pendingPlanned;
+        }
+
+        this.inFlight--;
+        return null;
+    }
+
+    /**
+     * Records the duration of a run and warns
+     * if the scheduler is consistently slower
+     * than its period. While it stays slow,
+     * the warning is repeated once a minute.
+     *
+     * @param nanos duration as nanoseconds
+     */
+    private synchronized void recordDuration(long nanos) {
+        if (this.period == 0 || nanos <= this.effectivePeriod) {
+            this.slowStreak = 0;
+            return;
+        }
+
+        if (++this.slowStreak < SLOW_WARNING_STREAK)
+            return;
+
+        long now = System.nanoTime();
+        if (this.slowStreak > SLOW_WARNING_STREAK && now - this.lastSlowWarning < SLOW_WARNING_INTERVAL)
+            return;
+
+        this.lastSlowWarning = now;
+        this.plugin.getLogger().warning("scheduler " + SchedulerExecutors.nameOf(this.method)
+                + " took longer than its period (" + TimeUnit.NANOSECONDS.toMillis(this.effectivePeriod) + "ms) in the last "
+                + this.slowStreak + " runs, last run took " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms");
     }
 }
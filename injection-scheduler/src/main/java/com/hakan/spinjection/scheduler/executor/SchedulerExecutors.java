@@ -0,0 +1,88 @@
+package com.hakan.spinjection.scheduler.executor;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SchedulerExecutors class to
+ * register and list the executors
+ * of scheduler methods.
+ */
+public class SchedulerExecutors {
+
+    private static final Map<String, SchedulerExecutor> executors = new ConcurrentHashMap<>();
+    private static final Map<String, SlicedSchedulerExecutor> slicedExecutors = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a scheduler executor.
+     *
+     * @param executor scheduler executor
+     */
+    public static void register(@Nonnull SchedulerExecutor executor) {
+        executors.put(nameOf(executor.getMethod()), executor);
+    }
+
+    /**
+     * Registers a sliced scheduler executor.
+     *
+     * @param executor sliced scheduler executor
+     */
+    public static void register(@Nonnull SlicedSchedulerExecutor executor) {
+        slicedExecutors.put(nameOf(executor.getMethod()), executor);
+    }
+
+    /**
+     * Finds the executor of the
+     * given scheduler method.
+     *
+     * @param name scheduler name (class#method)
+     * @return scheduler executor
+     */
+    public static @Nonnull Optional<SchedulerExecutor> findByName(@Nonnull String name) {
+        return Optional.ofNullable(executors.get(name));
+    }
+
+    /**
+     * Gets all scheduler executors.
+     *
+     * @return scheduler executors
+     */
+    public static @Nonnull Collection<SchedulerExecutor> getAll() {
+        return Collections.unmodifiableCollection(executors.values());
+    }
+
+    /**
+     * Finds the executor of the
+     * given sliced scheduler method.
+     *
+     * @param name scheduler name (class#method)
+     * @return sliced scheduler executor
+     */
+    public static @Nonnull Optional<SlicedSchedulerExecutor> findSlicedByName(@Nonnull String name) {
+        return Optional.ofNullable(slicedExecutors.get(name));
+    }
+
+    /**
+     * Gets all sliced scheduler executors.
+     *
+     * @return sliced scheduler executors
+     */
+    public static @Nonnull Collection<SlicedSchedulerExecutor> getAllSliced() {
+        return Collections.unmodifiableCollection(slicedExecutors.values());
+    }
+
+    /**
+     * Gets the name of the scheduler method.
+     *
+     * @param method scheduler method
+     * @return name (class#method)
+     */
+    public static @Nonnull String nameOf(@Nonnull Method method) {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+}
@@ -0,0 +1,286 @@
+package com.hakan.spinjection.scheduler.executor;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.scheduler.annotations.SlicedScheduler;
+import com.hakan.spinjection.scheduler.timer.TickScheduler;
+import lombok.SneakyThrows;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * SlicedSchedulerExecutor is a class that
+ * executes per-element scheduler method.
+ * <p>
+ * It runs every tick on {@link TickScheduler}.
+ * When a cycle is due, it takes a snapshot of
+ * the source collection and then processes
+ * the elements until the tick budget is used.
+ * The rest of the elements are processed in
+ * the next ticks.
+ */
+public class SlicedSchedulerExecutor implements Runnable, SpigotExecutor {
+
+    private Object instance;
+    private final Plugin plugin;
+    private final Method method;
+    private final Method source;
+    private final long delayTicks;
+    private final long periodTicks;
+    private final long budget;
+    private TickScheduler.Task tickTask;
+
+    private Object[] elements;
+    private int index;
+    private long nextCycleTick;
+    private long cycleStartTick;
+    private long cycleStartNanos;
+
+    private volatile int size;
+    private volatile int processed;
+    private volatile long cycles;
+    private volatile long overruns;
+    private volatile long lastCompletionTicks;
+    private volatile long lastCompletionNanos;
+
+    /**
+     * Constructor of SlicedSchedulerExecutor.
+     *
+     * @param plugin plugin
+     * @param method method
+     * @param source source method
+     */
+    public SlicedSchedulerExecutor(@Nonnull Plugin plugin,
+                                   @Nonnull Method method,
+                                   @Nonnull Method source) {
+        SlicedScheduler scheduler = method.getAnnotation(SlicedScheduler.class);
+
+        this.plugin = plugin;
+        this.method = method;
+        this.source = source;
+        this.delayTicks = scheduler.timeUnit().toMillis(scheduler.delay()) / 50;
+        this.periodTicks = Math.max(1, scheduler.timeUnit().toMillis(scheduler.period()) / 50);
+        this.budget = TimeUnit.MICROSECONDS.toNanos(scheduler.budget());
+    }
+
+    /**
+     * Gets the instance of the method
+     * that is annotated with {@link SlicedScheduler}.
+     *
+     * @return instance
+     */
+    @Override
+    public @Nullable Object getInstance() {
+        return this.instance;
+    }
+
+    /**
+     * Gets the declaring class of the method
+     * that is annotated with {@link SlicedScheduler}.
+     *
+     * @return declaring class
+     */
+    @Override
+    public @Nonnull Class<?> getDeclaringClass() {
+        return this.method.getDeclaringClass();
+    }
+
+    /**
+     * Gets the method that is
+     * annotated with {@link SlicedScheduler}.
+     *
+     * @return method
+     */
+    public @Nonnull Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Gets the progress of the current
+     * cycle between 0 and 1.
+     *
+     * @return progress, 1 if there is no running cycle
+     */
+    public double getProgress() {
+        int size = this.size;
+        return (size == 0) ? 1 : (double) this.processed / size;
+    }
+
+    /**
+     * Gets the count of the elements which are
+     * waiting to be processed in the current cycle.
+     *
+     * @return backlog
+     */
+    public int getBacklog() {
+        return Math.max(0, this.size - this.processed);
+    }
+
+    /**
+     * Gets the count of the completed cycles.
+     *
+     * @return cycle count
+     */
+    public long getCycles() {
+        return this.cycles;
+    }
+
+    /**
+     * Gets the count of the cycles which could
+     * not be completed in their period.
+     *
+     * @return overrun count
+     */
+    public long getOverruns() {
+        return this.overruns;
+    }
+
+    /**
+     * Gets how many ticks the last
+     * completed cycle took.
+     *
+     * @return completion ticks
+     */
+    public long getLastCompletionTicks() {
+        return this.lastCompletionTicks;
+    }
+
+    /**
+     * Gets how long the last
+     * completed cycle took.
+     *
+     * @param timeUnit time unit
+     * @return completion time
+     */
+    public long getLastCompletion(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.lastCompletionNanos, TimeUnit.NANOSECONDS);
+    }
+
+
+
+    /**
+     * Starts the scheduler.
+     *
+     * @param bootstrap injector
+     * @param instance  instance
+     */
+    @Override
+    public void execute(@Nonnull SpigotBootstrap bootstrap,
+                        @Nonnull Object instance) {
+        this.instance = instance;
+        this.nextCycleTick = TickScheduler.getCurrentTick() + this.delayTicks;
+
+        SchedulerExecutors.register(this);
+        this.tickTask = TickScheduler.schedule(this.plugin, this, 0, 1);
+    }
+
+    /**
+     * Cancels the scheduler.
+     */
+    public void cancel() {
+        if (this.tickTask != null)
+            this.tickTask.cancel();
+    }
+
+    /**
+     * Starts a new cycle if it is due and
+     * processes a slice of the elements.
+     */
+    @Override
+    public void run() {
+        long currentTick = TickScheduler.getCurrentTick();
+
+        if (this.elements == null) {
+            if (currentTick < this.nextCycleTick || !this.startCycle(currentTick))
+                return;
+        }
+
+        long start = System.nanoTime();
+        while (this.index < this.elements.length) {
+            this.invoke(this.elements[this.index]);
+            this.processed = ++this.index;
+
+            if (System.nanoTime() - start >= this.budget)
+                break;
+        }
+
+        if (this.index >= this.elements.length)
+            this.finishCycle(currentTick);
+    }
+
+
+
+    /**
+     * Takes a snapshot of the source
+     * collection and starts a new cycle.
+     * If the source method fails, the error
+     * is logged and the cycle is skipped
+     * for a whole period.
+     *
+     * @param currentTick current tick
+     * @return true if the cycle is started
+     */
+    @SneakyThrows
+    private boolean startCycle(long currentTick) {
+        Collection<?> collection;
+        try {
+            collection = (Collection<?>) this.source.invoke(this.instance);
+        } catch (InvocationTargetException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "source method " + this.source.getName() + " of sliced scheduler " + this.method.getName() + " threw an exception", e.getCause());
+            this.nextCycleTick = currentTick + this.periodTicks;
+            return false;
+        }
+
+        this.elements = (collection == null) ? new Object[0] : collection.toArray();
+        this.index = 0;
+        this.processed = 0;
+        this.size = this.elements.length;
+        this.cycleStartTick = currentTick;
+        this.cycleStartNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Finishes the current cycle and
+     * plans the next one.
+     *
+     * @param currentTick current tick
+     */
+    private void finishCycle(long currentTick) {
+        this.lastCompletionTicks = currentTick - this.cycleStartTick + 1;
+        this.lastCompletionNanos = System.nanoTime() - this.cycleStartNanos;
+        this.cycles++;
+
+        this.nextCycleTick = this.cycleStartTick + this.periodTicks;
+        if (this.nextCycleTick <= currentTick) {
+            this.nextCycleTick = currentTick + 1;
+            this.overruns++;
+        }
+
+        this.elements = null;
+        this.size = 0;
+        this.processed = 0;
+    }
+
+    /**
+     * Executes the method which is annotated
+     * with {@link SlicedScheduler} for the element.
+     *
+     * @param element element
+     */
+    @SneakyThrows
+    private void invoke(@Nullable Object element) {
+        try {
+            this.method.invoke(this.instance, element);
+        } catch (InvocationTargetException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "sliced scheduler " + this.method.getName() + " threw an exception", e.getCause());
+        }
+    }
+}
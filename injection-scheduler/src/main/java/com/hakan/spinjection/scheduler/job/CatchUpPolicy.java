@@ -0,0 +1,24 @@
+package com.hakan.spinjection.scheduler.job;
+
+/**
+ * CatchUpPolicy enum to decide what happens
+ * to the runs of a persistent job which are
+ * missed while the server was offline.
+ */
+public enum CatchUpPolicy {
+
+    /**
+     * Missed runs are fired once.
+     */
+    FIRE_ONCE,
+
+    /**
+     * Every missed run is fired.
+     */
+    FIRE_ALL,
+
+    /**
+     * Missed runs are skipped.
+     */
+    SKIP,
+}
@@ -0,0 +1,102 @@
+package com.hakan.spinjection.scheduler.job;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Job is a persistent scheduled task
+ * which is stored by {@link JobService}.
+ */
+public class Job implements Comparable<Job> {
+
+    private final long id;
+    private final String handler;
+    private final String payload;
+    private final long period;
+    private long due;
+    ScheduledFuture<?> armed;
+
+    /**
+     * Constructor of Job.
+     *
+     * @param id      id
+     * @param handler handler name
+     * @param payload payload
+     * @param due     due time as epoch milliseconds
+     * @param period  period as milliseconds, 0 to run once
+     */
+    Job(long id,
+        @Nonnull String handler,
+        @Nonnull String payload,
+        long due,
+        long period) {
+        this.id = id;
+        this.handler = handler;
+        this.payload = payload;
+        this.due = due;
+        this.period = period;
+    }
+
+    /**
+     * Gets the id of the job.
+     *
+     * @return id
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the handler name of the job.
+     *
+     * @return handler name
+     */
+    public @Nonnull String getHandler() {
+        return this.handler;
+    }
+
+    /**
+     * Gets the payload of the job.
+     *
+     * @return payload
+     */
+    public @Nonnull String getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Gets the due time of the job.
+     *
+     * @return due time as epoch milliseconds
+     */
+    public long getDue() {
+        return this.due;
+    }
+
+    /**
+     * Sets the due time of the job.
+     *
+     * @param due due time as epoch milliseconds
+     */
+    void setDue(long due) {
+        this.due = due;
+    }
+
+    /**
+     * Gets the period of the job.
+     *
+     * @return period as milliseconds, 0 if it runs once
+     */
+    public long getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(@Nonnull Job job) {
+        int compare = Long.compare(this.due, job.due);
+        return (compare != 0) ? compare : Long.compare(this.id, job.id);
+    }
+}
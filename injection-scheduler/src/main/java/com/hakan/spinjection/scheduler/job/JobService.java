@@ -0,0 +1,450 @@
+package com.hakan.spinjection.scheduler.job;
+
+import com.hakan.spinjection.scheduler.executor.JobHandlerExecutor;
+import com.hakan.spinjection.scheduler.timer.SchedulerTimer;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * JobService is an injectable service to
+ * schedule persistent jobs which survive
+ * restarts, such as "unban in 3 days".
+ * <p>
+ * Jobs are kept in a journal file and indexed
+ * by their due times. Only the jobs which are
+ * due in the near horizon are armed on the timer.
+ * The rest wait in the index until a sweep
+ * finds them in the horizon.
+ * <p>
+ * Runs which are missed while the server was
+ * offline are handled by the {@link CatchUpPolicy}
+ * of the job handler. Jobs whose handler is not
+ * registered yet are parked until it is registered.
+ * <p>
+ * The journal is replayed completely when the
+ * service is first used, since the live jobs are
+ * only known after all of their records are read.
+ * Only the arming on the timer is limited to the
+ * horizon. A journal which can't be read is moved
+ * aside and a new one is started.
+ * <p>
+ * The journal is created on the first job, and
+ * the service only starts sweeping when there is
+ * a handler, a job or a journal, so plugins
+ * without jobs don't get a file or a timer.
+ * It is stopped when the plugin is disabled.
+ */
+public class JobService implements Listener {
+
+    private static final long HORIZON = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_CATCH_UP = 1000;
+
+
+    private final Plugin plugin;
+    private final JobStore store;
+    private final Map<Long, Job> jobs;
+    private final NavigableSet<Job> waiting;
+    private final Map<String, JobHandlerExecutor> handlers;
+    private final Map<String, List<Job>> parked;
+    private long nextId;
+    private boolean loaded;
+    private boolean startable;
+    private boolean listening;
+    private long loadedAt;
+    private ScheduledFuture<?> sweeper;
+
+    /**
+     * Constructor of JobService.
+     *
+     * @param plugin plugin
+     */
+    public JobService(@Nonnull Plugin plugin) {
+        this(plugin, new File(plugin.getDataFolder(), "jobs.dat"));
+    }
+
+    /**
+     * Constructor of JobService. The journal
+     * is not touched until the service is used.
+     *
+     * @param plugin plugin
+     * @param file   journal file
+     */
+    public JobService(@Nonnull Plugin plugin,
+                      @Nonnull File file) {
+        this.plugin = plugin;
+        this.store = new JobStore(file);
+        this.jobs = new LinkedHashMap<>();
+        this.waiting = new TreeSet<>();
+        this.handlers = new HashMap<>();
+        this.parked = new HashMap<>();
+    }
+
+    /**
+     * Schedules a job which runs once.
+     *
+     * @param handler  handler name
+     * @param payload  payload
+     * @param delay    delay
+     * @param timeUnit time unit
+     * @return job
+     */
+    public synchronized @Nonnull Job schedule(@Nonnull String handler,
+                                              @Nonnull String payload,
+                                              long delay,
+                                              @Nonnull TimeUnit timeUnit) {
+        return this.scheduleAtFixedRate(handler, payload, delay, 0, timeUnit);
+    }
+
+    /**
+     * Schedules a job which runs periodically.
+     *
+     * @param handler  handler name
+     * @param payload  payload
+     * @param delay    delay
+     * @param period   period, 0 to run once
+     * @param timeUnit time unit
+     * @return job
+     */
+    public synchronized @Nonnull Job scheduleAtFixedRate(@Nonnull String handler,
+                                                         @Nonnull String payload,
+                                                         long delay,
+                                                         long period,
+                                                         @Nonnull TimeUnit timeUnit) {
+        if (period < 0)
+            throw new IllegalArgumentException("job period cannot be negative!");
+
+        this.load();
+        long due = System.currentTimeMillis() + timeUnit.toMillis(Math.max(0, delay));
+        Job job = new Job(this.nextId++, handler, payload, due, timeUnit.toMillis(period));
+
+        this.store.add(job);
+        this.jobs.put(job.getId(), job);
+        if (this.startable)
+            this.activate();
+        this.enqueue(job, System.currentTimeMillis());
+        return job;
+    }
+
+    /**
+     * Cancels the job and
+     * removes it from the store.
+     *
+     * @param id job id
+     * @return true if the job was found
+     */
+    public synchronized boolean cancel(long id) {
+        this.load();
+        Job job = this.jobs.remove(id);
+        if (job == null)
+            return false;
+
+        this.waiting.remove(job);
+        List<Job> parked = this.parked.get(job.getHandler());
+        if (parked != null)
+            parked.remove(job);
+        if (job.armed != null)
+            job.armed.cancel(false);
+
+        this.store.remove(job);
+        return true;
+    }
+
+    /**
+     * Finds the job by its id.
+     *
+     * @param id job id
+     * @return job
+     */
+    public synchronized @Nonnull Optional<Job> findById(long id) {
+        this.load();
+        return Optional.ofNullable(this.jobs.get(id));
+    }
+
+    /**
+     * Gets all jobs.
+     *
+     * @return jobs
+     */
+    public synchronized @Nonnull Collection<Job> getJobs() {
+        this.load();
+        return Collections.unmodifiableCollection(new ArrayList<>(this.jobs.values()));
+    }
+
+    /**
+     * Registers the handler of the jobs. Jobs
+     * which are parked for the handler are
+     * moved back to the index.
+     *
+     * @param handler handler executor
+     */
+    public synchronized void register(@Nonnull JobHandlerExecutor handler) {
+        this.handlers.put(handler.getName(), handler);
+        if (this.startable)
+            this.activate();
+
+        List<Job> parked = this.parked.remove(handler.getName());
+        if (parked == null)
+            return;
+
+        this.waiting.addAll(parked);
+        if (this.sweeper != null)
+            this.sweep();
+    }
+
+    /**
+     * Starts the service. It starts sweeping now
+     * if there is a handler or a journal, or
+     * else on the first handler or job.
+     */
+    public synchronized void start() {
+        this.startable = true;
+        if (!this.handlers.isEmpty() || !this.jobs.isEmpty() || this.store.exists())
+            this.activate();
+    }
+
+    /**
+     * Stops the service. Jobs stay in the store.
+     * It is called when the plugin is disabled.
+     */
+    public synchronized void stop() {
+        this.startable = false;
+        if (this.sweeper == null)
+            return;
+
+        this.sweeper.cancel(false);
+        this.sweeper = null;
+
+        for (Job job : this.jobs.values()) {
+            if (job.armed != null)
+                job.armed.cancel(false);
+            job.armed = null;
+        }
+
+        this.parked.clear();
+        this.waiting.clear();
+        this.waiting.addAll(this.jobs.values());
+        this.store.close();
+    }
+
+
+
+    /**
+     * Loads the journal if it is not loaded
+     * yet. A journal which can't be read is
+     * logged and moved aside.
+     * <p>
+     * Only the jobs of the journal can be due
+     * before the load time, since new jobs are
+     * scheduled after it. So only they are
+     * caught up as missed runs.
+     */
+    private void load() {
+        if (this.loaded)
+            return;
+        this.loaded = true;
+        this.loadedAt = System.currentTimeMillis();
+
+        Map<Long, Job> journal;
+        try {
+            journal = this.store.load();
+        } catch (Exception e) {
+            journal = Collections.emptyMap();
+            this.plugin.getLogger().log(Level.SEVERE, "job journal " + this.store.getFile() + " couldn't be read", e);
+            try {
+                this.plugin.getLogger().severe("job journal is moved to " + this.store.setAside() + ", a new one is started");
+            } catch (Exception moveError) {
+                this.plugin.getLogger().log(Level.SEVERE, "job journal couldn't be moved aside", moveError);
+            }
+        }
+
+        this.jobs.putAll(journal);
+        this.waiting.addAll(journal.values());
+        for (long id : journal.keySet())
+            this.nextId = Math.max(this.nextId, id + 1);
+    }
+
+    /**
+     * Loads the journal and starts sweeping the
+     * index if it is not started yet. Jobs which
+     * were due before the journal is loaded
+     * are caught up.
+     * The service is stopped when the plugin
+     * is disabled.
+     */
+    private void activate() {
+        if (this.sweeper != null)
+            return;
+
+        this.load();
+        this.sweeper = SchedulerTimer.scheduleAtFixedRate(this::sweep, 0, HORIZON / 2, TimeUnit.MILLISECONDS);
+
+        if (this.listening)
+            return;
+        this.listening = true;
+
+        Bukkit.getPluginManager().registerEvent(
+                PluginDisableEvent.class,
+                this,
+                EventPriority.MONITOR,
+                (listener, event) -> {
+                    if (((PluginDisableEvent) event).getPlugin() == this.plugin)
+                        this.stop();
+                },
+                this.plugin,
+                false
+        );
+    }
+
+    /**
+     * Arms the jobs which are due in the horizon
+     * and compacts the store if it is needed.
+     */
+    private synchronized void sweep() {
+        long now = System.currentTimeMillis();
+
+        while (!this.waiting.isEmpty() && this.waiting.first().getDue() < now + HORIZON) {
+            Job job = this.waiting.pollFirst();
+
+            JobHandlerExecutor handler = this.handlers.get(job.getHandler());
+            if (handler == null) {
+                this.park(job);
+                continue;
+            }
+
+            if (job.getDue() < this.loadedAt)
+                this.catchUp(job, handler, now);
+            else
+                this.arm(job, job.getDue() - now, 1);
+        }
+
+        this.store.compactIfNeeded(this.jobs.values());
+    }
+
+    /**
+     * Parks the job until its handler is
+     * registered. It stays in the store.
+     *
+     * @param job job
+     */
+    private void park(@Nonnull Job job) {
+        List<Job> parked = this.parked.computeIfAbsent(job.getHandler(), name -> new ArrayList<>());
+        if (parked.isEmpty())
+            this.plugin.getLogger().warning("jobs are parked until a handler named " + job.getHandler() + " is registered");
+        parked.add(job);
+    }
+
+    /**
+     * Handles the runs of the job which
+     * are missed before the journal is loaded,
+     * while the server was offline.
+     *
+     * @param job     job
+     * @param handler handler executor
+     * @param now     current time
+     */
+    private void catchUp(@Nonnull Job job,
+                         @Nonnull JobHandlerExecutor handler,
+                         long now) {
+        long missed = (job.getPeriod() == 0) ? 1 : (now - job.getDue()) / job.getPeriod() + 1;
+
+        switch (handler.getCatchUp()) {
+            case SKIP:
+                this.complete(job, now);
+                break;
+            case FIRE_ALL:
+                this.arm(job, 0, (int) Math.min(missed, MAX_CATCH_UP));
+                break;
+            default:
+                this.arm(job, 0, 1);
+                break;
+        }
+    }
+
+    /**
+     * Adds the job to the index, or arms it
+     * directly if it is in the horizon.
+     *
+     * @param job job
+     * @param now current time
+     */
+    private void enqueue(@Nonnull Job job, long now) {
+        if (this.sweeper != null && job.getDue() < now + HORIZON)
+            this.arm(job, job.getDue() - now, 1);
+        else
+            this.waiting.add(job);
+    }
+
+    /**
+     * Arms the job on the timer. When the timer
+     * fires, the handler of the job runs and the
+     * job is completed after the runs.
+     *
+     * @param job   job
+     * @param delay delay as milliseconds
+     * @param times run count
+     */
+    private void arm(@Nonnull Job job, long delay, int times) {
+        job.armed = SchedulerTimer.schedule(() -> {
+            JobHandlerExecutor handler;
+            synchronized (this) {
+                if (this.jobs.get(job.getId()) != job)
+                    return;
+                job.armed = null;
+                handler = this.handlers.get(job.getHandler());
+
+                if (handler == null) {
+                    this.park(job);
+                    return;
+                }
+            }
+
+            handler.fire(job, times, () -> this.complete(job, System.currentTimeMillis()));
+        }, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes a run of the job. Jobs which
+     * run once are removed, periodic jobs are
+     * moved to their next due time after now.
+     *
+     * @param job job
+     * @param now current time
+     */
+    private synchronized void complete(@Nonnull Job job, long now) {
+        if (this.jobs.get(job.getId()) != job)
+            return;
+
+        if (job.getPeriod() == 0) {
+            this.jobs.remove(job.getId());
+            this.store.remove(job);
+            return;
+        }
+
+        long due = job.getDue() + job.getPeriod();
+        if (due <= now)
+            due += ((now - due) / job.getPeriod() + 1) * job.getPeriod();
+
+        job.setDue(due);
+        this.store.reschedule(job);
+        this.enqueue(job, now);
+    }
+}
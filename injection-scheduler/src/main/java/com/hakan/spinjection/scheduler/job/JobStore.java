@@ -0,0 +1,259 @@
+package com.hakan.spinjection.scheduler.job;
+
+import lombok.SneakyThrows;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JobStore is an append-only journal file
+ * which keeps the persistent jobs.
+ * <p>
+ * Every change is appended as a small record.
+ * When the journal grows much more than the
+ * live jobs, it is compacted by rewriting the
+ * live jobs to a new file and moving it over
+ * the old one atomically.
+ */
+class JobStore {
+
+    private static final int MAGIC = 0x534A4F42;
+    private static final byte ADD = 1;
+    private static final byte RESCHEDULE = 2;
+    private static final byte REMOVE = 3;
+    private static final int COMPACT_THRESHOLD = 1024;
+
+
+    private final File file;
+    private DataOutputStream output;
+    private int records;
+
+    /**
+     * Constructor of JobStore.
+     *
+     * @param file journal file
+     */
+    JobStore(@Nonnull File file) {
+        this.file = file;
+    }
+
+    /**
+     * Checks if the journal file exists.
+     *
+     * @return true if it exists
+     */
+    boolean exists() {
+        return this.file.exists();
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return journal file
+     */
+    @Nonnull
+    File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Loads the live jobs from the journal
+     * and compacts the journal. Nothing is
+     * created if there is no journal yet.
+     *
+     * @return jobs by their ids
+     */
+    @SneakyThrows
+    @Nonnull
+    Map<Long, Job> load() {
+        Map<Long, Job> jobs = new LinkedHashMap<>();
+        if (!this.file.exists())
+            return jobs;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+            if (input.readInt() != MAGIC)
+                throw new IllegalArgumentException("file is not a job journal!");
+
+            while (true) {
+                byte type = input.readByte();
+                long id = input.readLong();
+
+                if (type == ADD) {
+                    jobs.put(id, new Job(id, input.readUTF(), input.readUTF(), input.readLong(), input.readLong()));
+                } else if (type == RESCHEDULE) {
+                    long due = input.readLong();
+                    Job job = jobs.get(id);
+                    if (job != null)
+                        job.setDue(due);
+                } else if (type == REMOVE) {
+                    jobs.remove(id);
+                } else {
+                    break;
+                }
+            }
+        } catch (EOFException ignored) {
+            // the last record may be cut by a crash
+        }
+
+        this.compact(jobs.values());
+        return jobs;
+    }
+
+    /**
+     * Appends a new job to the journal.
+     *
+     * @param job job
+     */
+    synchronized void add(@Nonnull Job job) {
+        this.append(ADD, job);
+    }
+
+    /**
+     * Appends the new due time
+     * of the job to the journal.
+     *
+     * @param job job
+     */
+    synchronized void reschedule(@Nonnull Job job) {
+        this.append(RESCHEDULE, job);
+    }
+
+    /**
+     * Appends the removal of
+     * the job to the journal.
+     *
+     * @param job job
+     */
+    synchronized void remove(@Nonnull Job job) {
+        this.append(REMOVE, job);
+    }
+
+    /**
+     * Compacts the journal if it has much
+     * more records than the live jobs.
+     *
+     * @param jobs live jobs
+     */
+    synchronized void compactIfNeeded(@Nonnull Collection<Job> jobs) {
+        if (this.records > COMPACT_THRESHOLD && this.records > jobs.size() * 2)
+            this.compact(jobs);
+    }
+
+    /**
+     * Moves the journal aside as a broken
+     * journal, so a new one can be started.
+     *
+     * @return moved file
+     */
+    @SneakyThrows
+    synchronized @Nonnull File setAside() {
+        this.close();
+
+        File broken = new File(this.file.getAbsoluteFile().getParentFile(), this.file.getName() + ".broken-" + System.currentTimeMillis());
+        Files.move(this.file.toPath(), broken.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        this.records = 0;
+        return broken;
+    }
+
+    /**
+     * Closes the journal.
+     */
+    @SneakyThrows
+    synchronized void close() {
+        if (this.output != null)
+            this.output.close();
+        this.output = null;
+    }
+
+
+
+    /**
+     * Appends a record to the journal. The
+     * journal is created on the first record.
+     *
+     * @param type record type
+     * @param job  job
+     */
+    @SneakyThrows
+    private void append(byte type, @Nonnull Job job) {
+        if (this.output == null && !this.file.exists())
+            this.compact(Collections.emptyList());
+        if (this.output == null)
+            this.output = this.open();
+
+        this.write(this.output, type, job);
+        this.output.flush();
+        this.records++;
+    }
+
+    /**
+     * Rewrites the journal with the
+     * live jobs and replaces the old one.
+     *
+     * @param jobs live jobs
+     */
+    @SneakyThrows
+    private synchronized void compact(@Nonnull Collection<Job> jobs) {
+        this.close();
+
+        File parent = this.file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs())
+            throw new IOException("job journal folder couldn't be created!");
+
+        File temp = new File(parent, this.file.getName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            output.writeInt(MAGIC);
+            for (Job job : jobs)
+                this.write(output, ADD, job);
+        }
+
+        Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.records = jobs.size();
+    }
+
+    /**
+     * Opens the journal to append.
+     *
+     * @return output stream
+     */
+    @SneakyThrows
+    private @Nonnull DataOutputStream open() {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file, true)));
+    }
+
+    /**
+     * Writes a record of the job.
+     *
+     * @param output output stream
+     * @param type   record type
+     * @param job    job
+     */
+    @SneakyThrows
+    private void write(@Nonnull DataOutputStream output, byte type, @Nonnull Job job) {
+        output.writeByte(type);
+        output.writeLong(job.getId());
+
+        if (type == ADD) {
+            output.writeUTF(job.getHandler());
+            output.writeUTF(job.getPayload());
+            output.writeLong(job.getDue());
+            output.writeLong(job.getPeriod());
+        } else if (type == RESCHEDULE) {
+            output.writeLong(job.getDue());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.hakan.spinjection.scheduler.lease;
+
+import lombok.SneakyThrows;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JdbcLeaseProvider keeps the leases as rows
+ * of a table in a JDBC database. It only uses
+ * portable SQL, so it is meant to work on MySQL
+ * as well as embedded H2 and SQLite databases.
+ * <p>
+ * Every acquire and release takes its own
+ * connection from the data source and runs
+ * in its own transaction, so the provider
+ * never commits a connection shared with
+ * other work. A pooled data source is
+ * recommended.
+ * <p>
+ * Expiry times are written by the clocks of
+ * the nodes, so the clocks must be synchronized
+ * much better than the lease time to live.
+ */
+public class JdbcLeaseProvider implements LeaseProvider {
+
+    private static final String DEFAULT_TABLE = "spinjection_scheduler_lease";
+
+
+    private final DataSource dataSource;
+    private final String table;
+    private volatile boolean created;
+
+    /**
+     * Constructor of JdbcLeaseProvider.
+     *
+     * @param dataSource data source
+     */
+    public JdbcLeaseProvider(@Nonnull DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE);
+    }
+
+    /**
+     * Constructor of JdbcLeaseProvider.
+     *
+     * @param dataSource data source
+     * @param table      lease table name
+     */
+    public JdbcLeaseProvider(@Nonnull DataSource dataSource,
+                             @Nonnull String table) {
+        this.dataSource = dataSource;
+        this.table = table;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SneakyThrows
+    public long acquire(@Nonnull String name,
+                        @Nonnull String owner,
+                        long ttl,
+                        @Nonnull TimeUnit timeUnit) {
+        try (Connection connection = this.dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            this.createTable(connection);
+            connection.setAutoCommit(false);
+
+            try {
+                long token = this.acquire(connection, name, owner, System.currentTimeMillis(), timeUnit.toMillis(ttl));
+                connection.commit();
+                return token;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SneakyThrows
+    public void release(@Nonnull String name,
+                        @Nonnull String owner) {
+        try (Connection connection = this.dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            this.createTable(connection);
+
+            try (PreparedStatement update = connection.prepareStatement("UPDATE " + this.table +
+                    " SET expires = 0 WHERE name = ? AND owner = ?")) {
+                update.setString(1, name);
+                update.setString(2, owner);
+                update.executeUpdate();
+            }
+        }
+    }
+
+
+
+    /**
+     * Takes over the lease if it is expired or
+     * already owned by the owner, or inserts it
+     * if there is no row of the lease.
+     *
+     * @param connection connection
+     * @param name       lease name
+     * @param owner      owner id
+     * @param now        current time as milliseconds
+     * @param ttl        time to live as milliseconds
+     * @return fencing token, -1 if the lease
+     * is held by another owner
+     * @throws SQLException if the database fails
+     */
+    private long acquire(@Nonnull Connection connection,
+                         @Nonnull String name,
+                         @Nonnull String owner,
+                         long now,
+                         long ttl) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement("UPDATE " + this.table +
+                " SET token = CASE WHEN owner = ? THEN token ELSE token + 1 END, owner = ?, expires = ?" +
+                " WHERE name = ? AND (owner = ? OR expires < ?)")) {
+            update.setString(1, owner);
+            update.setString(2, owner);
+            update.setLong(3, now + ttl);
+            update.setString(4, name);
+            update.setString(5, owner);
+            update.setLong(6, now);
+
+            if (update.executeUpdate() == 0 && !this.insert(connection, name, owner, now + ttl))
+                return -1;
+        }
+
+        try (PreparedStatement select = connection.prepareStatement("SELECT token FROM " + this.table +
+                " WHERE name = ? AND owner = ?")) {
+            select.setString(1, name);
+            select.setString(2, owner);
+
+            try (ResultSet result = select.executeQuery()) {
+                return result.next() ? result.getLong(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Inserts the lease row if
+     * there is no row of the lease.
+     *
+     * @param connection connection
+     * @param name       lease name
+     * @param owner      owner id
+     * @param expires    expiry time
+     * @return true if it is inserted, false if
+     * another node inserted the row first
+     * @throws SQLException if the database fails
+     */
+    private boolean insert(@Nonnull Connection connection,
+                           @Nonnull String name,
+                           @Nonnull String owner,
+                           long expires) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + this.table +
+                " (name, owner, token, expires) VALUES (?, ?, 1, ?)")) {
+            insert.setString(1, name);
+            insert.setString(2, owner);
+            insert.setLong(3, expires);
+            return insert.executeUpdate() == 1;
+        } catch (SQLException e) {
+            if (isDuplicateKey(e))
+                return false;
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if the exception is a violation of
+     * the primary key. It is the integrity constraint
+     * class "23" of SQL state, or the constraint error
+     * code (19) of SQLite drivers without SQL state.
+     *
+     * @param exception exception
+     * @return true if it is a duplicate key
+     */
+    private static boolean isDuplicateKey(@Nonnull SQLException exception) {
+        if (exception instanceof SQLIntegrityConstraintViolationException)
+            return true;
+
+        String state = exception.getSQLState();
+        if (state != null)
+            return state.startsWith("23");
+        return exception.getErrorCode() == 19;
+    }
+
+    /**
+     * Creates the lease table
+     * if it does not exist.
+     *
+     * @param connection connection
+     * @throws SQLException if the database fails
+     */
+    private void createTable(@Nonnull Connection connection) throws SQLException {
+        if (this.created)
+            return;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.table + " (" +
+                    "name VARCHAR(191) NOT NULL PRIMARY KEY, " +
+                    "owner VARCHAR(64) NOT NULL, " +
+                    "token BIGINT NOT NULL, " +
+                    "expires BIGINT NOT NULL)");
+        }
+        this.created = true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hakan.spinjection.scheduler.lease;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeaseProvider interface to acquire
+ * cluster-wide leases of the singleton
+ * schedulers.
+ */
+public interface LeaseProvider {
+
+    /**
+     * Acquires or renews the lease. The lease
+     * is given to the owner if it is free, it is
+     * expired or the owner already holds it.
+     *
+     * @param name     lease name
+     * @param owner    owner id
+     * @param ttl      time to live
+     * @param timeUnit time unit
+     * @return fencing token which increases every
+     * time the lease changes hands, -1 if the lease
+     * is held by another owner
+     */
+    long acquire(@Nonnull String name,
+                 @Nonnull String owner,
+                 long ttl,
+                 @Nonnull TimeUnit timeUnit);
+
+    /**
+     * Releases the lease if
+     * the owner holds it.
+     *
+     * @param name  lease name
+     * @param owner owner id
+     */
+    void release(@Nonnull String name,
+                 @Nonnull String owner);
+}
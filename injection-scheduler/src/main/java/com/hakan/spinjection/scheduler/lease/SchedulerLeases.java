@@ -0,0 +1,82 @@
+package com.hakan.spinjection.scheduler.lease;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * SchedulerLeases class to set the
+ * lease provider of the singleton
+ * schedulers and read the fencing
+ * token of the current run.
+ */
+public class SchedulerLeases {
+
+    private static final ThreadLocal<Long> tokens = new ThreadLocal<>();
+    private static volatile LeaseProvider provider;
+    private static volatile String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Sets the lease provider.
+     *
+     * @param leaseProvider lease provider
+     */
+    public static void setProvider(@Nullable LeaseProvider leaseProvider) {
+        provider = leaseProvider;
+    }
+
+    /**
+     * Gets the lease provider.
+     *
+     * @return lease provider, null if it is not set
+     */
+    public static @Nullable LeaseProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Sets the id of this node which
+     * is used as the owner of the leases.
+     *
+     * @param id node id
+     */
+    public static void setNodeId(@Nonnull String id) {
+        nodeId = id;
+    }
+
+    /**
+     * Gets the id of this node.
+     *
+     * @return node id
+     */
+    public static @Nonnull String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gets the fencing token of the singleton
+     * scheduler which runs on the current thread.
+     * Writes can be guarded with this token, so
+     * a node whose lease is expired cannot
+     * overwrite the results of the new owner.
+     *
+     * @return fencing token, -1 if there is no lease
+     */
+    public static long getCurrentToken() {
+        Long token = tokens.get();
+        return (token == null) ? -1 : token;
+    }
+
+    /**
+     * Sets the fencing token of
+     * the current thread.
+     *
+     * @param token fencing token, -1 to clear
+     */
+    public static void setCurrentToken(long token) {
+        if (token < 0)
+            tokens.remove();
+        else
+            tokens.set(token);
+    }
+}
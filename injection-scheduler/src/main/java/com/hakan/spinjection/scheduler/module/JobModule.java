@@ -0,0 +1,76 @@
+package com.hakan.spinjection.scheduler.module;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.module.SpigotModule;
+import com.hakan.spinjection.scheduler.annotations.JobHandler;
+import com.hakan.spinjection.scheduler.executor.JobHandlerExecutor;
+import com.hakan.spinjection.scheduler.job.Job;
+import com.hakan.spinjection.scheduler.job.JobService;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JobModule registers persistent job handler
+ * methods that are annotated with JobHandler
+ * and binds {@link JobService}.
+ */
+public class JobModule extends SpigotModule<Method, JobHandler> {
+
+    private JobService service;
+
+    /**
+     * Constructor of JobModule.
+     *
+     * @param bootstrap bootstrap
+     */
+    public JobModule(@Nonnull SpigotBootstrap bootstrap) {
+        super(bootstrap, Method.class, JobHandler.class);
+    }
+
+    /**
+     * Loads the handler methods that are annotated with {@link JobHandler}.
+     * And creates {@link JobHandlerExecutor} for each method to
+     * run the jobs of the handler.
+     *
+     * @param methods methods that are annotated with {@link JobHandler}.
+     */
+    @Override
+    public void load(@Nonnull Set<Method> methods) {
+        this.service = new JobService(super.plugin);
+
+        Set<String> names = new HashSet<>();
+        for (Method method : methods) {
+            JobHandler handler = method.getAnnotation(JobHandler.class);
+
+            if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != Job.class)
+                throw new RuntimeException("job handler method must have a single job parameter!");
+            if (method.getReturnType() != void.class)
+                throw new RuntimeException("job handler method must have void return type!");
+            if (!names.add(handler.value()))
+                throw new RuntimeException("job handler name must be unique!");
+
+            super.executors.add(new JobHandlerExecutor(super.plugin, method, this.service));
+        }
+
+        super.bind(JobService.class).withInstance(this.service);
+    }
+
+    /**
+     * Executes all job handler executors which are
+     * saved in {@link #executors}.
+     * <p>
+     * Then it starts the job service.
+     */
+    @Override
+    public void execute() {
+        for (SpigotExecutor executor : super.executors) {
+            executor.execute(bootstrap, bootstrap.getInstance(executor.getDeclaringClass()));
+        }
+
+        this.service.start();
+    }
+}
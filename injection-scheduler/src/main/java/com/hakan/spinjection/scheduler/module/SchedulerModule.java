@@ -5,9 +5,18 @@ import com.hakan.spinjection.executor.SpigotExecutor;
 import com.hakan.spinjection.module.SpigotModule;
 import com.hakan.spinjection.scheduler.annotations.Scheduler;
 import com.hakan.spinjection.scheduler.executor.SchedulerExecutor;
+import com.hakan.spinjection.scheduler.executor.SchedulerExecutors;
+import com.hakan.spinjection.scheduler.timer.MainThreadExecutor;
+import com.hakan.spinjection.scheduler.timer.TimerService;
+import com.hakan.spinjection.scheduler.worker.ExecutorType;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -29,31 +38,87 @@ public class SchedulerModule extends SpigotModule<Method, Scheduler> {
      * Loads the scheduler methods that are annotated with {@link Scheduler}.
      * And creates {@link SchedulerExecutor} for each class to
      * handle configuration processes.
+     * <p>
+     * It also binds {@link TimerService} and
+     * {@link MainThreadExecutor}, so they can
+     * be injected to the services.
      *
      * @param methods methods that are annotated with {@link Scheduler}.
      */
     @Override
     public void load(@Nonnull Set<Method> methods) {
         for (Method method : methods) {
+            Scheduler scheduler = method.getAnnotation(Scheduler.class);
+
             if (method.getParameterCount() != 0)
                 throw new RuntimeException("scheduler method must have no parameters!");
             if (method.getReturnType() != void.class)
                 throw new RuntimeException("scheduler method must have void return type!");
+            if (!scheduler.async() && scheduler.executor() != ExecutorType.TIMER)
+                throw new RuntimeException("scheduler executor can only be set for async schedulers!");
+            if (scheduler.concurrency() < 0)
+                throw new RuntimeException("scheduler concurrency cannot be negative!");
+            if (scheduler.queueSize() < 0)
+                throw new RuntimeException("scheduler queue size cannot be negative!");
+            if (!scheduler.cron().isEmpty() && (scheduler.delay() != 0 || scheduler.period() != 0))
+                throw new RuntimeException("scheduler cron cannot be used with delay or period!");
+            if (scheduler.cron().isEmpty() && !scheduler.zone().isEmpty())
+                throw new RuntimeException("scheduler zone can only be set for cron schedulers!");
+            if (scheduler.maxPeriod() != 0 && (scheduler.period() <= 0 || scheduler.maxPeriod() < scheduler.period()))
+                throw new RuntimeException("scheduler max period must be greater than the period!");
+            if (scheduler.singleton() && !scheduler.async())
+                throw new RuntimeException("singleton scheduler must be async!");
+            if (scheduler.leaseTtl() < 0)
+                throw new RuntimeException("scheduler lease ttl cannot be negative!");
 
             super.executors.add(new SchedulerExecutor(super.plugin, method));
         }
+
+        super.bind(TimerService.class).withInstance(new TimerService(super.plugin));
+        super.bind(MainThreadExecutor.class).withInstance(new MainThreadExecutor(super.plugin));
     }
 
     /**
      * Executes all scheduler executors which are
      * saved in {@link #executors}.
      * <p>
+     * Sync schedulers are spread across the
+     * ticks of their periods before they start.
      * Then it runs execute method of each executor.
      */
     @Override
     public void execute() {
+        this.spreadPhases();
+
         for (SpigotExecutor executor : super.executors) {
             executor.execute(bootstrap, bootstrap.getInstance(executor.getDeclaringClass()));
         }
     }
+
+
+
+    /**
+     * Groups periodic sync schedulers by
+     * their periods and assigns them evenly
+     * distributed phases in the period.
+     */
+    private void spreadPhases() {
+        Map<Long, List<SchedulerExecutor>> groups = new HashMap<>();
+        for (SpigotExecutor spigotExecutor : super.executors) {
+            SchedulerExecutor executor = (SchedulerExecutor) spigotExecutor;
+            if (executor.isAsync() || !executor.isSpread() || executor.getPeriodTicks() <= 1)
+                continue;
+
+            groups.computeIfAbsent(executor.getPeriodTicks(), period -> new ArrayList<>()).add(executor);
+        }
+
+        for (Map.Entry<Long, List<SchedulerExecutor>> group : groups.entrySet()) {
+            long period = group.getKey();
+            List<SchedulerExecutor> executors = group.getValue();
+            executors.sort(Comparator.comparing(executor -> SchedulerExecutors.nameOf(executor.getMethod())));
+
+            for (int i = 0; i < executors.size(); i++)
+                executors.get(i).setPhase(i * period / executors.size());
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.hakan.spinjection.scheduler.module;
+
+import com.hakan.spinjection.SpigotBootstrap;
+import com.hakan.spinjection.executor.SpigotExecutor;
+import com.hakan.spinjection.module.SpigotModule;
+import com.hakan.spinjection.scheduler.annotations.SlicedScheduler;
+import com.hakan.spinjection.scheduler.executor.SlicedSchedulerExecutor;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * SlicedSchedulerModule registers per-element
+ * scheduler methods that are annotated with SlicedScheduler.
+ */
+public class SlicedSchedulerModule extends SpigotModule<Method, SlicedScheduler> {
+
+    /**
+     * Constructor of SlicedSchedulerModule.
+     *
+     * @param bootstrap bootstrap
+     */
+    public SlicedSchedulerModule(@Nonnull SpigotBootstrap bootstrap) {
+        super(bootstrap, Method.class, SlicedScheduler.class);
+    }
+
+    /**
+     * Loads the scheduler methods that are annotated with {@link SlicedScheduler}.
+     * And creates {@link SlicedSchedulerExecutor} for each method to
+     * process the elements of its source.
+     *
+     * @param methods methods that are annotated with {@link SlicedScheduler}.
+     */
+    @Override
+    public void load(@Nonnull Set<Method> methods) {
+        for (Method method : methods) {
+            SlicedScheduler scheduler = method.getAnnotation(SlicedScheduler.class);
+
+            if (method.getParameterCount() != 1)
+                throw new RuntimeException("sliced scheduler method must have exactly one parameter!");
+            if (method.getReturnType() != void.class)
+                throw new RuntimeException("sliced scheduler method must have void return type!");
+            if (scheduler.period() <= 0)
+                throw new RuntimeException("sliced scheduler period must be positive!");
+            if (scheduler.budget() < 0)
+                throw new RuntimeException("sliced scheduler budget cannot be negative!");
+
+            Method source = this.findSource(method, scheduler.source());
+            if (source.getParameterCount() != 0)
+                throw new RuntimeException("sliced scheduler source must have no parameters!");
+            if (!Collection.class.isAssignableFrom(source.getReturnType()))
+                throw new RuntimeException("sliced scheduler source must return a collection!");
+
+            source.setAccessible(true);
+            super.executors.add(new SlicedSchedulerExecutor(super.plugin, method, source));
+        }
+    }
+
+    /**
+     * Executes all sliced scheduler executors
+     * which are saved in {@link #executors}.
+     * Then it runs execute method of each executor.
+     */
+    @Override
+    public void execute() {
+        for (SpigotExecutor executor : super.executors) {
+            executor.execute(bootstrap, bootstrap.getInstance(executor.getDeclaringClass()));
+        }
+    }
+
+
+
+    /**
+     * Finds the source method in the
+     * declaring class of the scheduler method.
+     *
+     * @param method scheduler method
+     * @param name   source method name
+     * @return source method
+     */
+    private @Nonnull Method findSource(@Nonnull Method method, @Nonnull String name) {
+        for (Method source : method.getDeclaringClass().getDeclaredMethods()) {
+            if (source.getName().equals(name) && source.getParameterCount() == 0)
+                return source;
+        }
+        throw new RuntimeException("sliced scheduler source method " + name + " not found!");
+    }
+}
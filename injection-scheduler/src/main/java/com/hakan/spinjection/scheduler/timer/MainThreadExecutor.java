@@ -0,0 +1,181 @@
+package com.hakan.spinjection.scheduler.timer;
+
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * MainThreadExecutor is an injectable executor
+ * to hand off the work of async tasks to the
+ * server thread without a bukkit task per work.
+ * <p>
+ * Works are added to a lock-free queue and the
+ * queue is drained once per tick under a time
+ * budget. The works which do not fit into the
+ * budget are carried to the next tick.
+ */
+public class MainThreadExecutor implements Executor, Runnable {
+
+    private final Plugin plugin;
+    private final MpscQueue<Runnable> queue;
+    private final AtomicBoolean started;
+    private final LongAdder submitted;
+    private volatile long budget;
+    private volatile long executed;
+    private volatile long carried;
+
+    /**
+     * Constructor of MainThreadExecutor.
+     *
+     * @param plugin plugin
+     */
+    public MainThreadExecutor(@Nonnull Plugin plugin) {
+        this.plugin = plugin;
+        this.queue = new MpscQueue<>();
+        this.started = new AtomicBoolean();
+        this.submitted = new LongAdder();
+        this.budget = TimeUnit.MILLISECONDS.toNanos(5);
+    }
+
+    /**
+     * Sets the time budget of a tick.
+     *
+     * @param budget   budget
+     * @param timeUnit time unit
+     */
+    public void setBudget(long budget, @Nonnull TimeUnit timeUnit) {
+        this.budget = timeUnit.toNanos(budget);
+    }
+
+    /**
+     * Gets the time budget of a tick.
+     *
+     * @param timeUnit time unit
+     * @return budget
+     */
+    public long getBudget(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(this.budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the count of the works
+     * which are waiting in the queue.
+     *
+     * @return backlog
+     */
+    public long getBacklog() {
+        return Math.max(0, this.submitted.sum() - this.executed);
+    }
+
+    /**
+     * Gets the count of the
+     * executed works.
+     *
+     * @return executed work count
+     */
+    public long getExecuted() {
+        return this.executed;
+    }
+
+    /**
+     * Gets the count of the ticks which
+     * carried works to the next tick.
+     *
+     * @return carried tick count
+     */
+    public long getCarried() {
+        return this.carried;
+    }
+
+    /**
+     * Adds the work to the queue to run
+     * on the server thread. It can be
+     * called from any thread.
+     *
+     * @param work work
+     */
+    @Override
+    public void execute(@Nonnull Runnable work) {
+        if (this.started.compareAndSet(false, true))
+            TickScheduler.schedule(this.plugin, this, 0, 1);
+
+        this.submitted.increment();
+        this.queue.offer(work);
+    }
+
+    /**
+     * Runs the action on the server thread
+     * when the future is completed.
+     *
+     * @param future future
+     * @param action action
+     * @param <T>    result type
+     * @return future of the action
+     */
+    public @Nonnull <T> CompletableFuture<Void> thenAcceptSync(@Nonnull CompletableFuture<T> future,
+                                                               @Nonnull Consumer<? super T> action) {
+        return future.thenAcceptAsync(action, this);
+    }
+
+    /**
+     * Applies the function on the server
+     * thread when the future is completed.
+     *
+     * @param future   future
+     * @param function function
+     * @param <T>      result type
+     * @param <R>      function result type
+     * @return future of the function
+     */
+    public @Nonnull <T, R> CompletableFuture<R> thenApplySync(@Nonnull CompletableFuture<T> future,
+                                                              @Nonnull Function<? super T, ? extends R> function) {
+        return future.thenApplyAsync(function, this);
+    }
+
+    /**
+     * Supplies a value on the server thread.
+     *
+     * @param supplier supplier
+     * @param <T>      result type
+     * @return future of the value
+     */
+    public @Nonnull <T> CompletableFuture<T> supplySync(@Nonnull Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, this);
+    }
+
+    /**
+     * Drains the queue until it is
+     * empty or the budget is exceeded.
+     */
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long count = 0;
+
+        Runnable work;
+        while ((work = this.queue.poll()) != null) {
+            count++;
+            try {
+                work.run();
+            } catch (Throwable throwable) {
+                this.plugin.getLogger().log(Level.SEVERE, "main thread work threw an exception", throwable);
+            }
+
+            if (System.nanoTime() - start > this.budget) {
+                this.carried++;
+                break;
+            }
+        }
+
+        this.executed += count;
+    }
+}
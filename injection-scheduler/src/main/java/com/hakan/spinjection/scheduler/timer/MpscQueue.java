@@ -0,0 +1,81 @@
+package com.hakan.spinjection.scheduler.timer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MpscQueue is a lock-free unbounded queue
+ * for many producers and a single consumer.
+ * <p>
+ * Offering is a single atomic swap of the tail,
+ * and polling does not use any atomic operation.
+ * An element can be invisible to the consumer
+ * for a moment while its producer links it.
+ *
+ * @param <E> element type
+ */
+class MpscQueue<E> {
+
+    private final AtomicReference<Node<E>> tail;
+    private Node<E> head;
+
+    /**
+     * Constructor of MpscQueue.
+     */
+    MpscQueue() {
+        this.head = new Node<>(null);
+        this.tail = new AtomicReference<>(this.head);
+    }
+
+    /**
+     * Adds the element to the queue.
+     * It can be called from any thread.
+     *
+     * @param element element
+     */
+    void offer(@Nonnull E element) {
+        Node<E> node = new Node<>(element);
+        this.tail.getAndSet(node).next = node;
+    }
+
+    /**
+     * Removes the first element of the queue.
+     * It must be called from the consumer thread.
+     *
+     * @return element, null if the queue is empty
+     */
+    @Nullable
+    E poll() {
+        Node<E> next = this.head.next;
+        if (next == null)
+            return null;
+
+        E element = next.element;
+        next.element = null;
+        this.head = next;
+        return element;
+    }
+
+
+
+    /**
+     * Node of the {@link MpscQueue}.
+     *
+     * @param <E> element type
+     */
+    private static class Node<E> {
+
+        private E element;
+        private volatile Node<E> next;
+
+        /**
+         * Constructor of Node.
+         *
+         * @param element element
+         */
+        private Node(@Nullable E element) {
+            this.element = element;
+        }
+    }
+}
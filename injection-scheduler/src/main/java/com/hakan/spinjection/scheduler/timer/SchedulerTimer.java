@@ -0,0 +1,86 @@
+package com.hakan.spinjection.scheduler.timer;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SchedulerTimer is the shared timer of
+ * async schedulers. It runs independently
+ * of the server tick loop, so the periods
+ * have millisecond precision and do not
+ * drift when the server is lagging.
+ */
+public class SchedulerTimer {
+
+    private static final ScheduledThreadPoolExecutor executor = createExecutor();
+
+    /**
+     * Schedules the task to run
+     * once after the delay.
+     *
+     * @param task     task
+     * @param delay    delay
+     * @param timeUnit time unit
+     * @return scheduled future
+     */
+    public static @Nonnull ScheduledFuture<?> schedule(@Nonnull Runnable task,
+                                                       long delay,
+                                                       @Nonnull TimeUnit timeUnit) {
+        return executor.schedule(task, delay, timeUnit);
+    }
+
+    /**
+     * Schedules the task to run at fixed rate.
+     * Fire times are planned from the first
+     * fire time, so they never drift.
+     *
+     * @param task     task
+     * @param delay    delay
+     * @param period   period
+     * @param timeUnit time unit
+     * @return scheduled future
+     */
+    public static @Nonnull ScheduledFuture<?> scheduleAtFixedRate(@Nonnull Runnable task,
+                                                                  long delay,
+                                                                  long period,
+                                                                  @Nonnull TimeUnit timeUnit) {
+        return executor.scheduleAtFixedRate(task, delay, period, timeUnit);
+    }
+
+    /**
+     * Gets the count of the
+     * scheduled tasks.
+     *
+     * @return scheduled task count
+     */
+    public static int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+
+
+    /**
+     * Creates the timer executor with
+     * daemon threads which are not
+     * blocking the server shutdown.
+     *
+     * @return executor
+     */
+    private static @Nonnull ScheduledThreadPoolExecutor createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "spigot-injection-timer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, factory);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
@@ -0,0 +1,296 @@
+package com.hakan.spinjection.scheduler.timer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * TickScheduler is the shared timer of sync
+ * schedulers. It is a single bukkit task which
+ * runs every tick and executes the due tasks
+ * under a per-tick time budget.
+ * <p>
+ * When the budget is exceeded, remaining due
+ * tasks are deferred to the next tick instead
+ * of stacking up in the same tick.
+ */
+public class TickScheduler implements Runnable {
+
+    private static final TickScheduler instance = new TickScheduler();
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FULL_LOAD_NANOS = TimeUnit.SECONDS.toNanos(1) / 15;
+    private static final long IDLE_LOAD_NANOS = (long) (TimeUnit.SECONDS.toNanos(1) / 19.5);
+    private static final long MAX_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int SMOOTHING = 40;
+
+    /**
+     * Schedules the task on the server thread.
+     *
+     * @param plugin      plugin
+     * @param task        task
+     * @param delayTicks  delay as ticks
+     * @param periodTicks period as ticks, 0 to run once
+     * @return scheduled task
+     */
+    public static @Nonnull Task schedule(@Nonnull Plugin plugin,
+                                         @Nonnull Runnable task,
+                                         long delayTicks,
+                                         long periodTicks) {
+        instance.startTask(plugin);
+
+        Task scheduled = new Task(task, delayTicks, periodTicks);
+        instance.inbox.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Sets the time budget of a tick.
+     *
+     * @param budget   budget
+     * @param timeUnit time unit
+     */
+    public static void setBudget(long budget, @Nonnull TimeUnit timeUnit) {
+        instance.budget = timeUnit.toNanos(budget);
+    }
+
+    /**
+     * Gets the time budget of a tick.
+     *
+     * @param timeUnit time unit
+     * @return budget
+     */
+    public static long getBudget(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(instance.budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the count of the runs which are
+     * deferred to the next tick by the budget.
+     *
+     * @return deferred run count
+     */
+    public static long getDeferred() {
+        return instance.deferred.get();
+    }
+
+    /**
+     * Starts the scheduler if it is not
+     * started, so the tick time is measured.
+     *
+     * @param plugin plugin
+     */
+    public static void start(@Nonnull Plugin plugin) {
+        instance.startTask(plugin);
+    }
+
+    /**
+     * Gets the smoothed time between
+     * the starts of two ticks.
+     *
+     * @param timeUnit time unit
+     * @return average tick time
+     */
+    public static long getAverageTickTime(@Nonnull TimeUnit timeUnit) {
+        return timeUnit.convert(instance.tickTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the ticks per second which
+     * is measured by the scheduler.
+     *
+     * @return tps, at most 20
+     */
+    public static double getTps() {
+        return Math.min(20, (double) TimeUnit.SECONDS.toNanos(1) / instance.tickTime);
+    }
+
+    /**
+     * Gets the load of the server between 0 and 1.
+     * It is 0 at 19.5 tps or more, and it rises
+     * linearly to 1 at 15 tps.
+     *
+     * @return load
+     */
+    public static double getLoad() {
+        double load = (double) (instance.tickTime - IDLE_LOAD_NANOS) / (FULL_LOAD_NANOS - IDLE_LOAD_NANOS);
+        return Math.max(0, Math.min(1, load));
+    }
+
+    /**
+     * Gets the current tick of the scheduler.
+     *
+     * @return current tick
+     */
+    public static long getCurrentTick() {
+        return instance.tick;
+    }
+
+
+
+    private final Queue<Task> inbox;
+    private final PriorityQueue<Task> queue;
+    private final AtomicLong deferred;
+    private volatile long budget;
+    private volatile long tick;
+    private volatile long tickTime;
+    private long lastTickStart;
+    private Plugin plugin;
+    private BukkitTask bukkitTask;
+    private long sequence;
+
+    /**
+     * Constructor of TickScheduler.
+     */
+    private TickScheduler() {
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.queue = new PriorityQueue<>();
+        this.deferred = new AtomicLong();
+        this.budget = TimeUnit.MILLISECONDS.toNanos(10);
+        this.tickTime = TICK_NANOS;
+    }
+
+    /**
+     * Starts the bukkit task of the
+     * scheduler if it is not started.
+     *
+     * @param plugin plugin
+     */
+    private synchronized void startTask(@Nonnull Plugin plugin) {
+        if (this.bukkitTask != null && !this.bukkitTask.isCancelled())
+            return;
+
+        this.plugin = plugin;
+        this.bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, this, 0, 1);
+    }
+
+    /**
+     * Runs the due tasks of the current tick
+     * until the time budget is exceeded.
+     */
+    @Override
+    public void run() {
+        long currentTick = ++this.tick;
+
+        long now = System.nanoTime();
+        if (this.lastTickStart != 0) {
+            long sample = Math.min(now - this.lastTickStart, MAX_SAMPLE_NANOS);
+            this.tickTime += (sample - this.tickTime) / SMOOTHING;
+        }
+        this.lastTickStart = now;
+
+        Task added;
+        while ((added = this.inbox.poll()) != null) {
+            added.due = currentTick + Math.max(0, added.delay - 1);
+            added.sequence = this.sequence++;
+            this.queue.add(added);
+        }
+
+        long start = System.nanoTime();
+        boolean ran = false;
+        Task task;
+        while ((task = this.queue.peek()) != null && task.due <= currentTick) {
+            if (ran && System.nanoTime() - start > this.budget)
+                break;
+
+            this.queue.poll();
+            if (task.cancelled)
+                continue;
+            if (task.due < currentTick)
+                this.deferred.incrementAndGet();
+
+            ran = true;
+            try {
+                task.runnable.run();
+            } catch (Throwable throwable) {
+                this.plugin.getLogger().log(Level.SEVERE, "sync scheduler task threw an exception", throwable);
+            }
+
+            if (task.period > 0 && !task.cancelled) {
+                task.due = Math.max(task.due + task.period, currentTick + 1);
+                task.sequence = this.sequence++;
+                this.queue.add(task);
+            }
+        }
+    }
+
+
+
+    /**
+     * Task which is scheduled
+     * on the {@link TickScheduler}.
+     */
+    public static class Task implements Comparable<Task> {
+
+        private final Runnable runnable;
+        private final long delay;
+        private volatile long period;
+        private volatile boolean cancelled;
+        private long due;
+        private long sequence;
+
+        /**
+         * Constructor of Task.
+         *
+         * @param runnable runnable
+         * @param delay    delay as ticks
+         * @param period   period as ticks
+         */
+        private Task(@Nonnull Runnable runnable, long delay, long period) {
+            this.runnable = runnable;
+            this.delay = Math.max(0, delay);
+            this.period = Math.max(0, period);
+        }
+
+        /**
+         * Gets the period of the task.
+         *
+         * @return period as ticks
+         */
+        public long getPeriod() {
+            return this.period;
+        }
+
+        /**
+         * Sets the period of the task. It is
+         * used from the next run of the task.
+         *
+         * @param period period as ticks
+         */
+        public void setPeriod(long period) {
+            this.period = Math.max(1, period);
+        }
+
+        /**
+         * Checks if the task is cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Cancels the task.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(@Nonnull Task task) {
+            int compare = Long.compare(this.due, task.due);
+            return (compare != 0) ? compare : Long.compare(this.sequence, task.sequence);
+        }
+    }
+}
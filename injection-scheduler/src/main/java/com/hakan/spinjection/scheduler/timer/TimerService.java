@@ -0,0 +1,320 @@
+package com.hakan.spinjection.scheduler.timer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * TimerService is an injectable service to
+ * schedule lots of short-lived one-shot timers
+ * such as cooldowns, buffs and combat tags.
+ * <p>
+ * Timers are kept in a hierarchical timing wheel
+ * of 4 levels with 64 slots, so scheduling and
+ * cancelling are O(1). The wheel is advanced on
+ * the server thread once per tick and the timers
+ * of the current slot are expired as a batch.
+ * <p>
+ * Timers can be scheduled from any thread, but
+ * the tasks always run on the server thread.
+ */
+public class TimerService implements Runnable {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int OVERFLOW = LEVELS * SLOTS;
+
+    private static final int PENDING = -1;
+    private static final int DONE = -2;
+
+
+    private final Plugin plugin;
+    private final Timer[] slots;
+    private final Queue<Timer> inbox;
+    private final AtomicBoolean started;
+    private long tick;
+    private volatile int size;
+    private volatile long expired;
+
+    /**
+     * Constructor of TimerService.
+     *
+     * @param plugin plugin
+     */
+    public TimerService(@Nonnull Plugin plugin) {
+        this.plugin = plugin;
+        this.slots = new Timer[OVERFLOW + 1];
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.started = new AtomicBoolean();
+    }
+
+    /**
+     * Gets the count of the
+     * timers which are waiting.
+     * It can be read from any thread.
+     *
+     * @return timer count
+     */
+    public int getSize() {
+        return this.size + this.inbox.size();
+    }
+
+    /**
+     * Gets the count of the timers
+     * which are expired so far.
+     *
+     * @return expired timer count
+     */
+    public long getExpired() {
+        return this.expired;
+    }
+
+    /**
+     * Schedules the task to run on the
+     * server thread after the delay.
+     *
+     * @param task     task
+     * @param delay    delay
+     * @param timeUnit time unit
+     * @return timer
+     */
+    public @Nonnull Timer schedule(@Nonnull Runnable task,
+                                   long delay,
+                                   @Nonnull TimeUnit timeUnit) {
+        return this.schedule(task, timeUnit.toMillis(delay) / 50);
+    }
+
+    /**
+     * Schedules the task to run on the
+     * server thread after the delay.
+     *
+     * @param task       task
+     * @param delayTicks delay as ticks, at least 1
+     * @return timer
+     */
+    public @Nonnull Timer schedule(@Nonnull Runnable task,
+                                   long delayTicks) {
+        if (this.started.compareAndSet(false, true)) {
+            this.tick = TickScheduler.getCurrentTick();
+            TickScheduler.schedule(this.plugin, this, 0, 1);
+        }
+
+        Timer timer = new Timer(task, Math.max(1, delayTicks));
+        if (Bukkit.isPrimaryThread()) {
+            timer.deadline += TickScheduler.getCurrentTick();
+            this.add(timer);
+        } else {
+            this.inbox.add(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Cancels the timer. If it is called on the
+     * server thread, the timer is removed from
+     * the wheel immediately.
+     *
+     * @param timer timer
+     * @return true if the timer was waiting
+     */
+    public boolean cancel(@Nonnull Timer timer) {
+        if (timer.cancelled || timer.index == DONE)
+            return false;
+
+        timer.cancelled = true;
+        if (timer.index >= 0 && Bukkit.isPrimaryThread())
+            this.remove(timer);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the current
+     * tick and expires the due timers.
+     */
+    @Override
+    public void run() {
+        long target = TickScheduler.getCurrentTick();
+
+        Timer added;
+        while ((added = this.inbox.poll()) != null) {
+            added.deadline += target;
+            this.add(added);
+        }
+
+        while (this.tick < target)
+            this.advance(++this.tick);
+    }
+
+
+
+    /**
+     * Processes a tick of the wheel. Higher levels
+     * are cascaded to the lower levels when their
+     * slot is reached, then the timers of the
+     * current slot in the first level are expired.
+     *
+     * @param tick tick
+     */
+    private void advance(long tick) {
+        if ((tick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0)
+            this.cascade(OVERFLOW);
+
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0)
+                this.cascade(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+
+        int slot = (int) (tick & SLOT_MASK);
+        Timer timer = this.slots[slot];
+        this.slots[slot] = null;
+
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            timer.index = DONE;
+            this.size--;
+
+            if (!timer.cancelled) {
+                this.expired++;
+                try {
+                    timer.task.run();
+                } catch (Throwable throwable) {
+                    this.plugin.getLogger().log(Level.SEVERE, "timer task threw an exception", throwable);
+                }
+            }
+
+            timer = next;
+        }
+    }
+
+    /**
+     * Moves the timers of the slot
+     * to their slots in lower levels.
+     *
+     * @param slot slot index
+     */
+    private void cascade(int slot) {
+        Timer timer = this.slots[slot];
+        this.slots[slot] = null;
+
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            this.size--;
+
+            if (!timer.cancelled)
+                this.add(timer);
+            else
+                timer.index = DONE;
+
+            timer = next;
+        }
+    }
+
+    /**
+     * Adds the timer to the slot of its deadline.
+     * The level is the first one whose upper
+     * level block contains both the current
+     * tick and the deadline.
+     *
+     * @param timer timer
+     */
+    private void add(@Nonnull Timer timer) {
+        if (timer.cancelled) {
+            timer.index = DONE;
+            return;
+        }
+
+        long deadline = Math.max(timer.deadline, this.tick);
+
+        int index = OVERFLOW;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((deadline >>> shift) == (this.tick >>> shift)) {
+                index = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+                break;
+            }
+        }
+
+        Timer head = this.slots[index];
+        timer.index = index;
+        timer.next = head;
+        if (head != null)
+            head.prev = timer;
+        this.slots[index] = timer;
+        this.size++;
+    }
+
+    /**
+     * Removes the timer from its slot.
+     *
+     * @param timer timer
+     */
+    private void remove(@Nonnull Timer timer) {
+        if (timer.prev != null)
+            timer.prev.next = timer.next;
+        else
+            this.slots[timer.index] = timer.next;
+        if (timer.next != null)
+            timer.next.prev = timer.prev;
+
+        timer.prev = timer.next = null;
+        timer.index = DONE;
+        this.size--;
+    }
+
+
+
+    /**
+     * Timer which is scheduled
+     * on the {@link TimerService}.
+     */
+    public static final class Timer {
+
+        private final Runnable task;
+        private long deadline;
+        private Timer prev;
+        private Timer next;
+        private int index;
+        private volatile boolean cancelled;
+
+        /**
+         * Constructor of Timer.
+         *
+         * @param task  task
+         * @param delay delay as ticks
+         */
+        private Timer(@Nonnull Runnable task, long delay) {
+            this.task = task;
+            this.deadline = delay;
+            this.index = PENDING;
+        }
+
+        /**
+         * Checks if the timer is cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Checks if the timer is expired
+         * or removed from the wheel.
+         *
+         * @return true if done
+         */
+        public boolean isDone() {
+            return this.index == DONE;
+        }
+    }
+}
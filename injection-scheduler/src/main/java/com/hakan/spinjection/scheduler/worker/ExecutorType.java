@@ -0,0 +1,28 @@
+package com.hakan.spinjection.scheduler.worker;
+
+/**
+ * Executor types of async schedulers.
+ */
+public enum ExecutorType {
+
+    /**
+     * Runs on a cached pool of daemon threads,
+     * like the async pool of Bukkit. The timer
+     * threads only fire the scheduler.
+     */
+    TIMER,
+
+    /**
+     * Runs each firing on a new virtual thread.
+     * Suitable for tasks blocking on I/O.
+     * <p>
+     * Falls back to {@link #POOL} if virtual
+     * threads are not supported by the JVM.
+     */
+    VIRTUAL,
+
+    /**
+     * Runs on a bounded pool of platform threads.
+     */
+    POOL
+}
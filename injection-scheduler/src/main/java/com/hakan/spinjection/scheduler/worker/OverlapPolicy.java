@@ -0,0 +1,27 @@
+package com.hakan.spinjection.scheduler.worker;
+
+/**
+ * Overlap policies of async schedulers.
+ * It decides what happens when a scheduler
+ * fires while its previous run is in progress.
+ */
+public enum OverlapPolicy {
+
+    /**
+     * Starts a new run next to the
+     * previous one (up to the concurrency).
+     */
+    ALLOW,
+
+    /**
+     * Skips the firing.
+     */
+    SKIP,
+
+    /**
+     * Queues one run to start right after
+     * the previous run. Firings while a run
+     * is already queued are skipped.
+     */
+    QUEUE
+}
@@ -0,0 +1,153 @@
+package com.hakan.spinjection.scheduler.worker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SchedulerWorkers class to get the
+ * executors that async schedulers
+ * are run on.
+ */
+public class SchedulerWorkers {
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int POOL_QUEUE_SIZE = POOL_SIZE * 64;
+    private static final ExecutorService timer = createTimer();
+    private static final ExecutorService virtual = createVirtual();
+    private static final ThreadPoolExecutor pool = createPool();
+
+    /**
+     * Gets the executor of the type.
+     *
+     * @param type executor type
+     * @return executor
+     */
+    public static @Nonnull ExecutorService get(@Nonnull ExecutorType type) {
+        switch (type) {
+            case VIRTUAL:
+                return (virtual != null) ? virtual : pool;
+            case POOL:
+                return pool;
+            default:
+                return timer;
+        }
+    }
+
+    /**
+     * Checks if virtual threads
+     * are supported by the JVM.
+     *
+     * @return true if supported
+     */
+    public static boolean isVirtualSupported() {
+        return virtual != null;
+    }
+
+    /**
+     * Gets the size of the platform pool.
+     *
+     * @return pool size
+     */
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+
+    /**
+     * Gets the count of the tasks which can
+     * wait for a thread in the pool. Tasks
+     * over it are rejected.
+     *
+     * @return pool queue capacity
+     */
+    public static int getPoolQueueCapacity() {
+        return POOL_QUEUE_SIZE;
+    }
+
+    /**
+     * Gets the count of the threads
+     * which are running a task in the pool.
+     *
+     * @return active thread count
+     */
+    public static int getPoolActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    /**
+     * Gets the count of the tasks which
+     * are waiting for a thread in the pool.
+     *
+     * @return queued task count
+     */
+    public static int getPoolQueueSize() {
+        return pool.getQueue().size();
+    }
+
+
+
+    /**
+     * Creates the cached pool of daemon
+     * threads which the bodies fired by
+     * the timer are handed off to.
+     *
+     * @return timer worker pool
+     */
+    private static @Nonnull ExecutorService createTimer() {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE,
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "spigot-injection-timer-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Creates a virtual thread per task
+     * executor if the JVM supports it (21+).
+     *
+     * @return virtual executor, null if not supported
+     */
+    private static @Nullable ExecutorService createVirtual() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the bounded pool of daemon
+     * platform threads with a bounded queue.
+     *
+     * @return pool
+     */
+    private static @Nonnull ThreadPoolExecutor createPool() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                POOL_SIZE, POOL_SIZE,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(POOL_QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "spigot-injection-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
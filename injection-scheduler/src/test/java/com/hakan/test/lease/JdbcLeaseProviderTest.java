@@ -0,0 +1,61 @@
+package com.hakan.test.lease;
+
+import com.hakan.spinjection.scheduler.lease.JdbcLeaseProvider;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JdbcLeaseProviderTest {
+
+    private JdbcLeaseProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        this.provider = new JdbcLeaseProvider(dataSource);
+    }
+
+    @Test
+    public void acquiresFreeLease() {
+        assertEquals(1, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+        assertEquals(1, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void rejectsLeaseHeldByAnotherOwner() {
+        assertEquals(1, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+        assertEquals(-1, this.provider.acquire("task", "node-b", 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void takesOverExpiredLease() throws InterruptedException {
+        assertEquals(1, this.provider.acquire("task", "node-a", 10, TimeUnit.MILLISECONDS));
+        Thread.sleep(50);
+
+        assertEquals(2, this.provider.acquire("task", "node-b", 1, TimeUnit.MINUTES));
+        assertEquals(-1, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void incrementsTokenOnEveryTakeover() {
+        assertEquals(1, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+        this.provider.release("task", "node-a");
+
+        assertEquals(2, this.provider.acquire("task", "node-b", 1, TimeUnit.MINUTES));
+        this.provider.release("task", "node-b");
+
+        assertEquals(3, this.provider.acquire("task", "node-a", 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void keepsLeasesSeparate() {
+        assertEquals(1, this.provider.acquire("first", "node-a", 1, TimeUnit.MINUTES));
+        assertEquals(1, this.provider.acquire("second", "node-b", 1, TimeUnit.MINUTES));
+    }
+}